@@ -0,0 +1,77 @@
+package com.martinseijo.spaceship.benchmark;
+
+import com.martinseijo.spaceship.SpaceshipApplication;
+import com.martinseijo.spaceship.application.search.SpaceshipNameIndex;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Boots the application without the Kafka listeners, and by default without the web layer, and
+ * seeds the in-memory database with {@code rows} spaceships whose ids run from 1 to {@code rows}.
+ */
+final class BenchmarkContext {
+
+    private static final String[] WORDS = {"Falcon", "Enterprise", "Voyager", "Defiant", "Serenity", "Rocinante", "Nostromo", "Galactica"};
+    private static final int SEED_BATCH = 10_000;
+    private static final String[] QUIET = {
+            "--spaceship.kafka.auto-startup=false",
+            "--logging.level.root=WARN",
+            "--logging.level.org.springframework.jdbc=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.springframework.cache=WARN"};
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(SpaceshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run(withQuietLogging(args));
+    }
+
+    /**
+     * Boots the servlet and the reactive HTTP servers on random ports; the servlet port is
+     * published as {@code local.server.port}.
+     */
+    static ConfigurableApplicationContext startServers() {
+        return new SpringApplicationBuilder(SpaceshipApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .bannerMode(Banner.Mode.OFF)
+                .run(withQuietLogging("--server.port=0", "--spaceship.reactive.enabled=true", "--spaceship.reactive.port=0"));
+    }
+
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM spaceship");
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(new Object[]{id, name(id)});
+            if (batch.size() == SEED_BATCH || id == rows) {
+                jdbcTemplate.batchUpdate("INSERT INTO spaceship (id, name) VALUES (?, ?)", batch);
+                batch.clear();
+            }
+        }
+        context.getBean(SpaceshipNameIndex.class).rebuild();
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private static String[] withQuietLogging(String... args) {
+        String[] all = Arrays.copyOf(QUIET, QUIET.length + args.length);
+        System.arraycopy(args, 0, all, QUIET.length, args.length);
+        return all;
+    }
+
+    static String name(long id) {
+        return WORDS[(int) (id % WORDS.length)] + " " + id;
+    }
+}
@@ -0,0 +1,70 @@
+package com.martinseijo.spaceship.benchmark;
+
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache-missing {@code getById} calls for random ids from 32 threads, with one query per call
+ * versus micro-batched lookups. The batch sizes actually reached are published in the
+ * {@code spaceship.batch-loader.batch.size} summary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(32)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SpaceshipBatchLoaderBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"false", "true"})
+    private boolean batching;
+
+    private ConfigurableApplicationContext context;
+    private SpaceshipService service;
+    private Cache cache;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("--spaceship.batch-loader.enabled=" + batching);
+        BenchmarkContext.seed(context, ROWS);
+        service = context.getBean(SpaceshipService.class);
+        cache = context.getBean(CacheManager.class).getCache(CacheNames.SPACESHIP);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SpaceshipDTO getByIdCold() throws ResourceNotFoundException {
+        long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+        cache.evict(id);
+        return service.getById(id);
+    }
+}
@@ -0,0 +1,55 @@
+package com.martinseijo.spaceship.benchmark;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SpaceshipMapperBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final SpaceshipMapper mapper = Mappers.getMapper(SpaceshipMapper.class);
+    private Spaceship spaceship;
+    private List<Spaceship> spaceships;
+
+    @Setup
+    public void setup() {
+        spaceships = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> Spaceship.builder().id(id).name(BenchmarkContext.name(id)).build())
+                .toList();
+        spaceship = spaceships.get(0);
+    }
+
+    @Benchmark
+    public SpaceshipDTO toDTO() {
+        return mapper.toDTO(spaceship);
+    }
+
+    @Benchmark
+    public List<SpaceshipDTO> toDTOList() {
+        return mapper.toDTOList(spaceships);
+    }
+}
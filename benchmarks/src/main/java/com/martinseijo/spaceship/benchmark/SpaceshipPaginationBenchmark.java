@@ -0,0 +1,74 @@
+package com.martinseijo.spaceship.benchmark;
+
+import com.martinseijo.spaceship.domain.model.SpaceshipView;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the same page of 20 rows at increasing depths, once with {@code OFFSET} (plus the count
+ * query the paginated endpoint issues) and once with the keyset seek used by {@code /scroll}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SpaceshipPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"0", "50", "99"})
+    private int depthPercent;
+
+    private ConfigurableApplicationContext context;
+    private SpaceshipRepository repository;
+    private int pageNumber;
+    private long lastId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, rows);
+        repository = context.getBean(SpaceshipRepository.class);
+        pageNumber = (int) ((long) rows * depthPercent / 100 / PAGE_SIZE);
+        lastId = (long) pageNumber * PAGE_SIZE;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<SpaceshipView> offset() {
+        return repository.findAllViews(PageRequest.of(pageNumber, PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Benchmark
+    public Slice<SpaceshipView> keyset() {
+        return repository.findViewsAfterId(lastId, PageRequest.of(0, PAGE_SIZE));
+    }
+}
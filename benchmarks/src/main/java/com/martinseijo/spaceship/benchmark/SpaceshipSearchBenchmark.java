@@ -0,0 +1,83 @@
+package com.martinseijo.spaceship.benchmark;
+
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches by name through {@code SpaceshipService.getSpaceshipsByFilter} with the in-process
+ * trigram index enabled and disabled, for a broad query (one name in eight matches) and a
+ * selective one. Both variants answer the same page with its exact total, so the difference is
+ * the index against the {@code LIKE '%...%'} query and its count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SpaceshipSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"falcon", "alcon 99"})
+    private String query;
+
+    @Param({"true", "false"})
+    private boolean index;
+
+    private ConfigurableApplicationContext context;
+    private SpaceshipService service;
+    private Cache cache;
+    private SpaceshipFilter filter;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("--spaceship.search.index.enabled=" + index);
+        BenchmarkContext.seed(context, rows);
+        service = context.getBean(SpaceshipService.class);
+        cache = context.getBean(CacheManager.class).getCache(CacheNames.SPACESHIP_SEARCH);
+        filter = new SpaceshipFilter();
+        filter.setName(query);
+        pageable = PageRequest.of(0, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Clearing the search cache inline keeps every invocation a miss; it holds a single entry, so
+     * the clear is negligible next to the search.
+     */
+    @Benchmark
+    public Page<SpaceshipDTO> getSpaceshipsByFilter() {
+        cache.clear();
+        return service.getSpaceshipsByFilter(filter, pageable);
+    }
+}
@@ -0,0 +1,69 @@
+package com.martinseijo.spaceship.benchmark;
+
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SpaceshipServiceBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private SpaceshipService service;
+    private Cache cache;
+    private long id;
+
+    @Setup(Level.Trial)
+    public void setup() throws ResourceNotFoundException {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, ROWS);
+        service = context.getBean(SpaceshipService.class);
+        cache = context.getBean(CacheManager.class).getCache(CacheNames.SPACESHIP);
+        id = ROWS / 2;
+        service.getById(id);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SpaceshipDTO getByIdWarm() throws ResourceNotFoundException {
+        return service.getById(id);
+    }
+
+    /**
+     * Evicting inline keeps every invocation a miss; the eviction itself is a single Caffeine
+     * remove and is negligible next to the database round trip.
+     */
+    @Benchmark
+    public SpaceshipDTO getByIdCold() throws ResourceNotFoundException {
+        cache.evict(id);
+        return service.getById(id);
+    }
+}
@@ -0,0 +1,107 @@
+package com.martinseijo.spaceship.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.infrastructure.web.SpaceshipWireFormats;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serializes a page and reads back its content in each wire format, with the default reflective
+ * serializers or the hand-written ones the API registers. The {@code bytes} counter reports the
+ * encoded size of the page, so size and CPU cost come from the same run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"reflective", "tuned"})
+    private String serializer;
+
+    @Param({"20", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private Page<SpaceshipDTO> page;
+    private byte[] encodedContent;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = new ObjectMapper(factory(format)).findAndRegisterModules();
+        if (serializer.equals("tuned")) {
+            objectMapper.registerModule(SpaceshipWireFormats.spaceshipModule());
+            if (!format.equals("json")) {
+                objectMapper.registerModule(SpaceshipWireFormats.binaryEnvelopeModule());
+            }
+        }
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, SpaceshipDTO.class);
+        List<SpaceshipDTO> content = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> new SpaceshipDTO(id, BenchmarkContext.name(id), 0L))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, size), 1_000_000);
+        encodedContent = objectMapper.writeValueAsBytes(content);
+    }
+
+    @Benchmark
+    public byte[] serializePage(EncodedSize encodedSize) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(page);
+        encodedSize.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<SpaceshipDTO> deserializeContent() throws IOException {
+        return objectMapper.readValue(encodedContent, listType);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.martinseijo.spaceship;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
 
 @SpringBootApplication
-@EnableCaching
+// Caching wraps the bulkhead and the transactional advice, so a cache hit never waits for a permit,
+// opens a transaction or borrows a connection.
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 2)
 public class SpaceshipApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,14 @@
+package com.martinseijo.spaceship.application.cache;
+
+public final class CacheNames {
+
+    public static final String SPACESHIP = "spaceship";
+    public static final String SPACESHIPS = "spaceships";
+    public static final String SPACESHIP_PAGES = "spaceshipPages";
+    public static final String SPACESHIP_SEARCH = "spaceshipSearch";
+    public static final String SPACESHIP_RESPONSES = "spaceshipResponses";
+    public static final String SPACESHIP_COUNTS = "spaceshipCounts";
+
+    private CacheNames() {
+    }
+}
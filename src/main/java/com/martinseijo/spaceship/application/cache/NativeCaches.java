@@ -0,0 +1,22 @@
+package com.martinseijo.spaceship.application.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.util.Optional;
+
+/**
+ * Reaches through the transaction-aware decorator to the underlying Caffeine cache, for the few
+ * callers that need Caffeine's own API (eviction policy, non-loading reads).
+ */
+public final class NativeCaches {
+
+    private NativeCaches() {
+    }
+
+    public static Optional<com.github.benmanes.caffeine.cache.Cache<Object, Object>> caffeine(Cache cache) {
+        Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+        return target instanceof CaffeineCache caffeineCache ? Optional.of(caffeineCache.getNativeCache()) : Optional.empty();
+    }
+}
@@ -0,0 +1,38 @@
+package com.martinseijo.spaceship.application.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.application.service.SpaceshipBatchLoader;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Loader behind the "spaceship" cache. Caffeine uses it to reload hot entries asynchronously once
+ * they pass {@code refreshAfterWrite}, so readers keep getting the current value instead of
+ * blocking on an expired one. When the batch loader is enabled, those reloads join its batches.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpaceshipCacheLoader implements CacheLoader<Object, Object> {
+
+    private final SpaceshipRepository repository;
+    private final SpaceshipMapper mapper;
+    private final SpaceshipBatchLoader batchLoader;
+
+    @Override
+    public Object load(Object key) {
+        return repository.findViewById((Long) key).map(mapper::toDTO).orElse(null);
+    }
+
+    @Override
+    public CompletableFuture<?> asyncLoad(Object key, Executor executor) throws Exception {
+        if (batchLoader.isEnabled()) {
+            return batchLoader.loadAsync((Long) key);
+        }
+        return CacheLoader.super.asyncLoad(key, executor);
+    }
+}
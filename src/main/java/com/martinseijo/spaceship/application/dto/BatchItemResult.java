@@ -0,0 +1,31 @@
+package com.martinseijo.spaceship.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    private int index;
+    private Long id;
+    private BatchItemStatus status;
+    private String error;
+    private SpaceshipDTO spaceship;
+
+    public static BatchItemResult success(int index, BatchItemStatus status, SpaceshipDTO spaceship) {
+        return new BatchItemResult(index, spaceship.getId(), status, null, spaceship);
+    }
+
+    public static BatchItemResult failed(int index, Long id, String error) {
+        return new BatchItemResult(index, id, BatchItemStatus.FAILED, error, null);
+    }
+
+    @JsonIgnore
+    public boolean isFailed() {
+        return status == BatchItemStatus.FAILED;
+    }
+}
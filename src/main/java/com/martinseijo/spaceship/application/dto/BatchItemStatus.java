@@ -0,0 +1,8 @@
+package com.martinseijo.spaceship.application.dto;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    FAILED
+}
@@ -0,0 +1,22 @@
+package com.martinseijo.spaceship.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult {
+
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResult> items;
+
+    public static BatchResult of(List<BatchItemResult> items) {
+        int failed = (int) items.stream().filter(BatchItemResult::isFailed).count();
+        return new BatchResult(items.size() - failed, failed, items);
+    }
+}
@@ -0,0 +1,29 @@
+package com.martinseijo.spaceship.application.dto;
+
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * How the total of a paginated response is obtained: an exact {@code count}, a count cached for a
+ * while, an estimate from table statistics, or no total at all (only whether there is a next page).
+ */
+public enum CountStrategy {
+
+    EXACT,
+    CACHED,
+    ESTIMATED,
+    NONE;
+
+    public static CountStrategy from(String value) {
+        return Arrays.stream(values())
+                .filter(strategy -> strategy.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new InvalidInputException("Unsupported count strategy: " + value));
+    }
+
+    public String getValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,18 @@
+package com.martinseijo.spaceship.application.dto;
+
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+
+import java.util.Arrays;
+
+public enum ScrollOrder {
+
+    ID,
+    NAME;
+
+    public static ScrollOrder from(String value) {
+        return Arrays.stream(values())
+                .filter(order -> order.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new InvalidInputException("Unsupported scroll order: " + value));
+    }
+}
@@ -0,0 +1,17 @@
+package com.martinseijo.spaceship.application.dto;
+
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class SpaceshipChangeDTO {
+
+    private Long seq;
+    private SpaceshipChangeType type;
+    private Long id;
+    private String name;
+    private Long version;
+    private Instant changedAt;
+}
@@ -0,0 +1,17 @@
+package com.martinseijo.spaceship.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceshipChangePage {
+
+    private List<SpaceshipChangeDTO> changes;
+    private long nextSince;
+    private boolean hasMore;
+}
@@ -1,10 +1,15 @@
 package com.martinseijo.spaceship.application.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class SpaceshipDTO {
 
     private Long id;
     private String name;
+    private Long version;
 }
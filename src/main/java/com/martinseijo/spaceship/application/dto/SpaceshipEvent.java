@@ -0,0 +1,14 @@
+package com.martinseijo.spaceship.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceshipEvent {
+
+    private SpaceshipEventType type;
+    private SpaceshipDTO spaceship;
+}
@@ -0,0 +1,7 @@
+package com.martinseijo.spaceship.application.dto;
+
+public enum SpaceshipEventType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -2,7 +2,20 @@ package com.martinseijo.spaceship.application.dto;
 
 import lombok.Data;
 
+import java.util.Locale;
+
 @Data
 public class SpaceshipFilter {
     private String name;
+    private SearchMode mode = SearchMode.CONTAINS;
+
+    /**
+     * Lower-cased {@code LIKE} pattern for this filter, with {@code !} as the escape character so
+     * wildcards typed by the client match literally. A missing name matches every spaceship.
+     */
+    public String likePattern() {
+        String escaped = name == null ? "" : name.toLowerCase(Locale.ROOT)
+                .replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return (mode == SearchMode.PREFIX ? "" : "%") + escaped + "%";
+    }
 }
@@ -0,0 +1,23 @@
+package com.martinseijo.spaceship.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceshipLookup {
+
+    private Long id;
+    private boolean found;
+    private SpaceshipDTO spaceship;
+
+    public static SpaceshipLookup found(SpaceshipDTO spaceship) {
+        return new SpaceshipLookup(spaceship.getId(), true, spaceship);
+    }
+
+    public static SpaceshipLookup missing(Long id) {
+        return new SpaceshipLookup(id, false, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.martinseijo.spaceship.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceshipSlice {
+
+    private List<SpaceshipDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,60 @@
+package com.martinseijo.spaceship.application.event;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Short-lived record of recent deletions, for in-memory views patched from
+ * {@link com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent}s. After-commit listeners of
+ * concurrent transactions may run out of commit order, so an update can arrive after the delete
+ * that followed it; while the tombstone lives, such an update is recognised and dropped instead of
+ * bringing the spaceship back. Not thread-safe: callers guard it with the lock of their view.
+ */
+public final class Tombstones {
+
+    private final long ttlNanos;
+    private final Map<Long, Tombstone> deleted = new LinkedHashMap<>();
+
+    public Tombstones(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public void add(long id, Long version) {
+        long now = System.nanoTime();
+        prune(now);
+        deleted.remove(id);
+        deleted.put(id, new Tombstone(version, now + ttlNanos));
+    }
+
+    /**
+     * Whether a change of {@code id} at {@code version} predates a recorded deletion. Changes
+     * without a version are always considered older.
+     */
+    public boolean hides(long id, Long version) {
+        Tombstone tombstone = deleted.get(id);
+        if (tombstone == null || tombstone.expiresAt() - System.nanoTime() < 0) {
+            return false;
+        }
+        return version == null || tombstone.version() == null || version <= tombstone.version();
+    }
+
+    public int size() {
+        return deleted.size();
+    }
+
+    /**
+     * Tombstones are kept in insertion order with a fixed lifetime, so the expired ones are always
+     * at the head.
+     */
+    private void prune(long now) {
+        Iterator<Tombstone> iterator = deleted.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt() - now < 0) {
+            iterator.remove();
+        }
+    }
+
+    private record Tombstone(Long version, long expiresAt) {
+    }
+}
@@ -1,8 +1,12 @@
 package com.martinseijo.spaceship.application.mapper;
 
+import com.martinseijo.spaceship.application.dto.SpaceshipChangeDTO;
 import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
 import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.model.SpaceshipChange;
+import com.martinseijo.spaceship.domain.model.SpaceshipView;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import java.util.List;
 
@@ -11,10 +15,19 @@ public interface SpaceshipMapper {
 
     SpaceshipDTO toDTO(Spaceship spaceship);
 
+    SpaceshipDTO toDTO(SpaceshipView view);
+
     Spaceship toEntity(SpaceshipDTO dto);
 
     List<SpaceshipDTO> toDTOList(List<Spaceship> spaceships);
 
     List<Spaceship> toEntityList(List<SpaceshipDTO> dtos);
 
+    List<SpaceshipDTO> toViewDTOList(List<SpaceshipView> views);
+
+    @Mapping(target = "id", source = "spaceshipId")
+    SpaceshipChangeDTO toChangeDTO(SpaceshipChange change);
+
+    List<SpaceshipChangeDTO> toChangeDTOList(List<SpaceshipChange> changes);
+
 }
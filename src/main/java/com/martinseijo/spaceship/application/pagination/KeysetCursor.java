@@ -0,0 +1,64 @@
+package com.martinseijo.spaceship.application.pagination;
+
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination. It carries the sort order and the key of the
+ * last row returned, so the next page is a plain range scan instead of an {@code OFFSET}.
+ */
+public record KeysetCursor(ScrollOrder order, long id, String name) {
+
+    private static final String SEPARATOR = ":";
+
+    public static KeysetCursor first(ScrollOrder order) {
+        return new KeysetCursor(order, Long.MIN_VALUE, null);
+    }
+
+    /**
+     * Resolves where a scroll request starts. Without a token the first page is read in the given
+     * order, by id when none is given; with a token the order is the one the cursor was issued for,
+     * and an explicit order that differs from it is rejected rather than silently ignored.
+     */
+    public static KeysetCursor resume(String token, ScrollOrder order) {
+        if (token == null) {
+            return first(order == null ? ScrollOrder.ID : order);
+        }
+        KeysetCursor cursor = decode(token);
+        if (order != null && order != cursor.order()) {
+            throw new InvalidInputException("Scroll order " + order.name().toLowerCase()
+                    + " does not match the cursor, which is ordered by " + cursor.order().name().toLowerCase());
+        }
+        return cursor;
+    }
+
+    public boolean isFirst() {
+        return id == Long.MIN_VALUE;
+    }
+
+    public String encode() {
+        String raw = order.name() + SEPARATOR + id + (order == ScrollOrder.NAME ? SEPARATOR + name : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            ScrollOrder order = ScrollOrder.valueOf(parts[0]);
+            long id = Long.parseLong(parts[1]);
+            if (order == ScrollOrder.NAME) {
+                if (parts.length < 3) {
+                    throw new IllegalArgumentException("Missing name key");
+                }
+                return new KeysetCursor(order, id, parts[2]);
+            }
+            return new KeysetCursor(order, id, null);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidInputException("Invalid pagination cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.martinseijo.spaceship.application.readmodel;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Off-heap map from positive {@code long} keys to byte arrays. Keys live in an open-addressing
+ * table with linear probing and backward-shift deletion; each slot holds the key plus the offset
+ * and length of its value in an append-only data arena. Overwritten and removed values become
+ * garbage that is reclaimed by compacting the arena when it runs out of room. Both buffers are
+ * direct, so the entries add no objects to the Java heap. Not thread-safe.
+ */
+final class OffHeapJsonStore {
+
+    private static final int SLOT_BYTES = 16;
+    private static final int OFFSET = 8;
+    private static final int LENGTH = 12;
+    private static final long EMPTY = 0L;
+
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+    private ByteBuffer data;
+    private int dataEnd;
+    private long garbage;
+
+    OffHeapJsonStore(int expectedEntries, int initialDataBytes) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedEntries * 2 - 1)) << 1;
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        mask = capacity - 1;
+        data = ByteBuffer.allocateDirect(Math.max(1024, initialDataBytes));
+    }
+
+    int size() {
+        return size;
+    }
+
+    long dataBytes() {
+        return dataEnd - garbage;
+    }
+
+    byte[] get(long key) {
+        return get(key, 0);
+    }
+
+    /**
+     * Returns the value without its first {@code skip} bytes, or {@code null} when the key is absent.
+     */
+    byte[] get(long key, int skip) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        int length = slots.getInt(slot * SLOT_BYTES + LENGTH) - skip;
+        byte[] value = new byte[length];
+        data.get(slots.getInt(slot * SLOT_BYTES + OFFSET) + skip, value, 0, length);
+        return value;
+    }
+
+    /**
+     * Reads the first eight bytes of the value as a {@code long}, or returns {@code absent} when the
+     * key is not stored.
+     */
+    long getLong(long key, long absent) {
+        int slot = find(key);
+        return slot < 0 ? absent : data.getLong(slots.getInt(slot * SLOT_BYTES + OFFSET));
+    }
+
+    void put(long key, byte[] value) {
+        if (key <= EMPTY) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        reserve(value.length);
+        int offset = dataEnd;
+        data.put(offset, value);
+        dataEnd += value.length;
+
+        int slot = probe(key);
+        int base = slot * SLOT_BYTES;
+        if (slots.getLong(base) == key) {
+            garbage += slots.getInt(base + LENGTH);
+        } else {
+            slots.putLong(base, key);
+            size++;
+        }
+        slots.putInt(base + OFFSET, offset);
+        slots.putInt(base + LENGTH, value.length);
+        if (size * 2 > mask + 1) {
+            resize((mask + 1) * 2);
+        }
+    }
+
+    boolean remove(long key) {
+        int hole = find(key);
+        if (hole < 0) {
+            return false;
+        }
+        garbage += slots.getInt(hole * SLOT_BYTES + LENGTH);
+        size--;
+        int next = (hole + 1) & mask;
+        long nextKey;
+        while ((nextKey = slots.getLong(next * SLOT_BYTES)) != EMPTY) {
+            int ideal = hash(nextKey) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                copySlot(next, hole);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        clearSlot(hole);
+        return true;
+    }
+
+    private int find(long key) {
+        if (key <= EMPTY) {
+            return -1;
+        }
+        int slot = probe(key);
+        return slots.getLong(slot * SLOT_BYTES) == key ? slot : -1;
+    }
+
+    private int probe(long key) {
+        int slot = hash(key) & mask;
+        long current;
+        while ((current = slots.getLong(slot * SLOT_BYTES)) != EMPTY && current != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void reserve(int length) {
+        if ((long) dataEnd + length <= data.capacity()) {
+            return;
+        }
+        long needed = dataBytes() + length;
+        int capacity = data.capacity();
+        while (capacity < needed * 2 && capacity < Integer.MAX_VALUE / 2) {
+            capacity *= 2;
+        }
+        ByteBuffer compacted = ByteBuffer.allocateDirect(capacity);
+        int end = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            int base = slot * SLOT_BYTES;
+            if (slots.getLong(base) == EMPTY) {
+                continue;
+            }
+            int offset = slots.getInt(base + OFFSET);
+            int valueLength = slots.getInt(base + LENGTH);
+            compacted.put(end, data, offset, valueLength);
+            slots.putInt(base + OFFSET, end);
+            end += valueLength;
+        }
+        data = compacted;
+        dataEnd = end;
+        garbage = 0;
+    }
+
+    private void resize(int capacity) {
+        ByteBuffer previous = slots;
+        int previousCapacity = mask + 1;
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        mask = capacity - 1;
+        for (int slot = 0; slot < previousCapacity; slot++) {
+            long key = previous.getLong(slot * SLOT_BYTES);
+            if (key != EMPTY) {
+                int base = probe(key) * SLOT_BYTES;
+                slots.putLong(base, key);
+                slots.putInt(base + OFFSET, previous.getInt(slot * SLOT_BYTES + OFFSET));
+                slots.putInt(base + LENGTH, previous.getInt(slot * SLOT_BYTES + LENGTH));
+            }
+        }
+    }
+
+    private void copySlot(int from, int to) {
+        slots.putLong(to * SLOT_BYTES, slots.getLong(from * SLOT_BYTES));
+        slots.putInt(to * SLOT_BYTES + OFFSET, slots.getInt(from * SLOT_BYTES + OFFSET));
+        slots.putInt(to * SLOT_BYTES + LENGTH, slots.getInt(from * SLOT_BYTES + LENGTH));
+    }
+
+    private void clearSlot(int slot) {
+        slots.putLong(slot * SLOT_BYTES, EMPTY);
+        slots.putLong(slot * SLOT_BYTES + OFFSET, 0L);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
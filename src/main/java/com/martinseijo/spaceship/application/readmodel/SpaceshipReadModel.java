@@ -0,0 +1,270 @@
+package com.martinseijo.spaceship.application.readmodel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.event.Tombstones;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.application.service.SpaceshipWriteBehindBuffer;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Optional read replica of the catalogue holding every spaceship as pre-serialized JSON in an
+ * {@link OffHeapJsonStore}. It is loaded when the application is ready and patched after each
+ * committed write, so {@code GET /spaceships/{id}} can answer with a single byte copy instead of a
+ * Hibernate load, a MapStruct copy and a Jackson pass. Each value is prefixed with the eight-byte
+ * entity version so conditional requests can be answered without copying the JSON.
+ *
+ * <p>A load builds a new store on the side while the current one keeps serving. Changes committed
+ * during the load are applied to the current store and also recorded, then replayed in order on
+ * the new store before it is swapped in, so a spaceship renamed or deleted while the table was
+ * being streamed is never served stale. Ids with a write-behind update still pending are not
+ * answered here, so the caller falls back to the service, which returns the pending state.
+ *
+ * <p>Change events may arrive out of commit order, so an update older than the stored version is
+ * ignored, and a deleted id keeps a {@link Tombstones tombstone} for a minute so a late update
+ * cannot resurrect it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SpaceshipReadModel {
+
+    private final SpaceshipRepository repository;
+    private final SpaceshipMapper mapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final SpaceshipWriteBehindBuffer writeBehind;
+    private static final long NO_VERSION = -1L;
+    private static final Duration TOMBSTONE_TTL = Duration.ofMinutes(1);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Tombstones tombstones = new Tombstones(TOMBSTONE_TTL);
+
+    @Value("${spaceship.read-model.enabled:false}")
+    private boolean enabled;
+
+    @Value("${spaceship.read-model.initial-capacity:1024}")
+    private int initialCapacity;
+
+    private OffHeapJsonStore store;
+    private List<Change> changesWhileLoading;
+    private volatile boolean restored;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = "!@spaceshipReadModel.restored")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        OffHeapJsonStore freshStore = load(target -> {
+            try (Stream<Spaceship> spaceships = repository.streamAll()) {
+                spaceships.forEach(spaceship -> {
+                    target.put(spaceship.getId(), serialize(mapper.toDTO(spaceship)));
+                    entityManager.detach(spaceship);
+                });
+            }
+        });
+        log.info("Spaceship read model loaded with {} entries ({} bytes off-heap)", freshStore.size(), freshStore.dataBytes());
+    }
+
+    /**
+     * Loads the read model from a snapshot instead of the database; the load normally run when
+     * the application is ready is then skipped.
+     */
+    public void restore(Stream<SpaceshipDTO> spaceships) {
+        if (!enabled) {
+            return;
+        }
+        OffHeapJsonStore freshStore = load(target -> spaceships.forEach(spaceship -> target.put(spaceship.getId(), serialize(spaceship))));
+        restored = true;
+        log.info("Spaceship read model restored with {} entries ({} bytes off-heap)", freshStore.size(), freshStore.dataBytes());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceshipChanged(SpaceshipChangedEvent event) {
+        if (!enabled || event.id() == null) {
+            return;
+        }
+        if (event.type() == SpaceshipChangeType.DELETED) {
+            remove(event.id(), event.version());
+        } else {
+            put(mapper.toDTO(Spaceship.builder().id(event.id()).name(event.name()).version(event.version()).build()));
+        }
+    }
+
+    /**
+     * Returns the JSON representation of the spaceship, or {@code null} when the read model is
+     * disabled, still loading, does not know the id or the id has an update pending.
+     */
+    public byte[] getJson(long id) {
+        Entry entry = get(id);
+        return entry == null ? null : entry.json();
+    }
+
+    /**
+     * Returns the version and JSON of the spaceship read together, or {@code null} when the read
+     * model cannot answer for the id.
+     */
+    public Entry get(long id) {
+        if (writeBehind.pending(id) != null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (store == null) {
+                return null;
+            }
+            long version = store.getLong(id, NO_VERSION);
+            byte[] json = store.get(id, Long.BYTES);
+            return json == null ? null : new Entry(version == NO_VERSION ? null : version, json);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the stored version of the spaceship without copying its JSON, or {@code null} when it
+     * is unknown.
+     */
+    public Long getVersion(long id) {
+        if (writeBehind.pending(id) != null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            long version = store == null ? NO_VERSION : store.getLong(id, NO_VERSION);
+            return version == NO_VERSION ? null : version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(SpaceshipDTO spaceship) {
+        apply(new Change(spaceship.getId(), spaceship.getVersion(), serialize(spaceship)));
+    }
+
+    public void remove(long id, Long version) {
+        apply(new Change(id, version, null));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return store == null ? 0 : store.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (changesWhileLoading != null) {
+                changesWhileLoading.add(change);
+            }
+            if (store != null) {
+                change.applyTo(store, tombstones);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fills a new store with {@code loader}, replays the changes committed meanwhile and swaps it
+     * in. If the load fails the current store is kept, already patched with those changes.
+     */
+    private synchronized OffHeapJsonStore load(Consumer<OffHeapJsonStore> loader) {
+        lock.writeLock().lock();
+        try {
+            changesWhileLoading = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        OffHeapJsonStore freshStore = new OffHeapJsonStore(initialCapacity, initialCapacity * 64);
+        boolean loaded = false;
+        try {
+            loader.accept(freshStore);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    changesWhileLoading.forEach(change -> change.applyTo(freshStore, tombstones));
+                    store = freshStore;
+                }
+                changesWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return freshStore;
+    }
+
+    private byte[] serialize(SpaceshipDTO spaceship) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(spaceship);
+            long version = spaceship.getVersion() == null ? NO_VERSION : spaceship.getVersion();
+            return ByteBuffer.allocate(Long.BYTES + json.length).putLong(version).put(json).array();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize spaceship " + spaceship.getId(), e);
+        }
+    }
+
+    public record Entry(Long version, byte[] json) {
+    }
+
+    /**
+     * A committed change as it is written to the store: the new value, or {@code null} for a
+     * removal, with the version it was committed at. Updates that the store or a tombstone show to
+     * be stale are skipped.
+     */
+    private record Change(long id, Long version, byte[] value) {
+
+        void applyTo(OffHeapJsonStore target, Tombstones tombstones) {
+            if (value == null) {
+                target.remove(id);
+                tombstones.add(id, version);
+                return;
+            }
+            if (tombstones.hides(id, version)) {
+                return;
+            }
+            long stored = target.getLong(id, NO_VERSION);
+            if (version != null && stored != NO_VERSION && stored > version) {
+                return;
+            }
+            target.put(id, value);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.martinseijo.spaceship.application.search;
+
+/**
+ * Count-Min sketch of 32-bit counters: {@code depth} rows of {@code width} counters, each row
+ * indexed by its own hash of the key. Estimates never undercount and overcount by at most
+ * {@code e / width} of the total with probability {@code 1 - e^-depth}. Not thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int[][] counters;
+    private final int mask;
+
+    CountMinSketch(int width, int depth) {
+        int size = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.counters = new int[Math.max(1, depth)][size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds {@code count} occurrences of the key with the given hash and returns its new estimate.
+     * Only the counters that hold the current minimum are raised (conservative update), which
+     * keeps the overcount of rare keys lower than a plain increment.
+     */
+    long add(long hash, long count) {
+        long estimate = estimate(hash);
+        long target = Math.min(Integer.MAX_VALUE, estimate + count);
+        for (int row = 0; row < counters.length; row++) {
+            int index = index(hash, row);
+            if (counters[row][index] < target) {
+                counters[row][index] = (int) target;
+            }
+        }
+        return target;
+    }
+
+    long estimate(long hash) {
+        long estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            estimate = Math.min(estimate, counters[row][index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter, so old popularity fades and the sketch follows the current traffic.
+     */
+    void halve() {
+        for (int[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+    }
+
+    private int index(long hash, int row) {
+        long mixed = (hash + row * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        return (int) (mixed ^ (mixed >>> 31)) & mask;
+    }
+}
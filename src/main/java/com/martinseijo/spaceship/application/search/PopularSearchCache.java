@@ -0,0 +1,251 @@
+package com.martinseijo.spaceship.application.search;
+
+import com.martinseijo.spaceship.application.dto.SearchMode;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Materialized id lists for the most popular name searches. A Count-Min sketch estimates how often
+ * each filter value is searched and the {@code top-k} values seen at least {@code min-hits} times
+ * keep the sorted ids of every spaceship they match, so a page of one of them is cut from memory
+ * instead of running the {@code like} query and its count. Committed changes are applied to every
+ * list by matching the new name against each cached filter, so writes never flush it. Filters
+ * matching more than {@code max-ids} spaceships are remembered as too broad and left to the
+ * database.
+ */
+@Component
+@Slf4j
+public class PopularSearchCache {
+
+    private static final long[] TOO_BROAD = new long[0];
+
+    private final SpaceshipRepository repository;
+    private final boolean enabled;
+    private final int topK;
+    private final int minHits;
+    private final int maxIds;
+    private final int sampleSize;
+    private final CountMinSketch sketch;
+    private final Map<Query, Long> candidates = new HashMap<>();
+    private final Map<Query, long[]> materialized = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private int samples;
+    private long changes;
+
+    public PopularSearchCache(SpaceshipRepository repository,
+                              @Value("${spaceship.search.popular.enabled:false}") boolean enabled,
+                              @Value("${spaceship.search.popular.top-k:32}") int topK,
+                              @Value("${spaceship.search.popular.min-hits:3}") int minHits,
+                              @Value("${spaceship.search.popular.max-ids:10000}") int maxIds,
+                              @Value("${spaceship.search.popular.sketch-width:1024}") int sketchWidth,
+                              @Value("${spaceship.search.popular.sketch-depth:4}") int sketchDepth) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.minHits = minHits;
+        this.maxIds = maxIds;
+        this.sampleSize = sketchWidth * 10;
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Counts a search for {@code filter} and returns the ids it matches, in id order, when it is
+     * one of the popular ones; the list is loaded with a single id query the first time. Returns
+     * {@code null} when the search should go to the database.
+     */
+    public long[] lookup(SpaceshipFilter filter) {
+        Query query = Query.of(filter);
+        if (!record(query)) {
+            return null;
+        }
+        long[] ids = materialized.get(query);
+        if (ids == null) {
+            ids = materialize(query, filter);
+        }
+        return ids == TOO_BROAD ? null : ids;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceshipChanged(SpaceshipChangedEvent event) {
+        if (!enabled || event.id() == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            changes++;
+            materialized.replaceAll((query, ids) -> {
+                if (ids == TOO_BROAD) {
+                    return ids;
+                }
+                boolean matches = event.type() != SpaceshipChangeType.DELETED && event.name() != null
+                        && query.matches(event.name());
+                return matches ? insert(ids, event.id()) : remove(ids, event.id());
+            });
+        }
+    }
+
+    /**
+     * The popular filters with their estimated search counts, most searched first.
+     */
+    public List<PopularQuery> hottest() {
+        synchronized (candidates) {
+            return candidates.entrySet().stream()
+                    .sorted(Map.Entry.<Query, Long>comparingByValue().reversed())
+                    .map(entry -> new PopularQuery(entry.getKey().name(), entry.getKey().mode(), entry.getValue()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Seeds the sketch with the popular filters of a snapshot and materializes their id lists from
+     * its records, so they are served from memory from the first request.
+     */
+    public void restore(List<PopularQuery> queries, Stream<SpaceshipDTO> spaceships) {
+        if (!enabled || queries.isEmpty()) {
+            return;
+        }
+        Map<Query, List<Long>> matches = new HashMap<>();
+        synchronized (candidates) {
+            for (PopularQuery popular : queries.subList(0, Math.min(topK, queries.size()))) {
+                Query query = new Query(popular.name(), popular.mode());
+                candidates.put(query, sketch.add(query.hash(), popular.count()));
+                matches.put(query, new ArrayList<>());
+            }
+        }
+        spaceships.forEach(spaceship -> matches.forEach((query, ids) -> {
+            if (ids.size() <= maxIds && query.matches(spaceship.getName())) {
+                ids.add(spaceship.getId());
+            }
+        }));
+        synchronized (writeLock) {
+            matches.forEach((query, ids) -> materialized.put(query, ids.size() > maxIds
+                    ? TOO_BROAD
+                    : ids.stream().mapToLong(Long::longValue).sorted().toArray()));
+        }
+        log.info("Popular search cache restored with {} queries", matches.size());
+    }
+
+    /**
+     * Returns whether the query is popular enough to be served from memory, dropping the list of
+     * the filter it displaces from the top.
+     */
+    private boolean record(Query query) {
+        synchronized (candidates) {
+            if (++samples >= sampleSize) {
+                sketch.halve();
+                candidates.replaceAll((candidate, count) -> count / 2);
+                samples = 0;
+            }
+            long estimate = sketch.add(query.hash(), 1);
+            if (!candidates.containsKey(query) && candidates.size() >= topK) {
+                Map.Entry<Query, Long> coldest = candidates.entrySet().stream()
+                        .min(Map.Entry.comparingByValue())
+                        .orElseThrow();
+                if (estimate <= coldest.getValue()) {
+                    return false;
+                }
+                candidates.remove(coldest.getKey());
+                materialized.remove(coldest.getKey());
+            }
+            candidates.put(query, estimate);
+            return estimate >= minHits;
+        }
+    }
+
+    /**
+     * Loads the ids outside of any lock and keeps them only if no change was committed meanwhile
+     * and the query is still popular; otherwise the list is used for this request only and the
+     * next one loads it again.
+     */
+    private long[] materialize(Query query, SpaceshipFilter filter) {
+        long changesBefore;
+        synchronized (writeLock) {
+            changesBefore = changes;
+        }
+        List<Long> found = repository.findIdsByNameLike(filter.likePattern(), PageRequest.of(0, maxIds + 1));
+        long[] ids = found.size() > maxIds ? TOO_BROAD : found.stream().mapToLong(Long::longValue).sorted().toArray();
+        synchronized (writeLock) {
+            synchronized (candidates) {
+                if (changes == changesBefore && candidates.containsKey(query)) {
+                    materialized.putIfAbsent(query, ids);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private long[] insert(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        if (ids.length >= maxIds) {
+            return TOO_BROAD;
+        }
+        position = -position - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        updated[position] = id;
+        System.arraycopy(ids, position, updated, position + 1, ids.length - position);
+        return updated;
+    }
+
+    private static long[] remove(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+        return updated;
+    }
+
+    /**
+     * A popular filter value and its estimated number of searches.
+     */
+    public record PopularQuery(String name, SearchMode mode, long count) {
+    }
+
+    /**
+     * A filter as the {@code like} query sees it: the lower-cased name, matched as a prefix or
+     * anywhere in the name. Fuzzy searches run the same query as substring ones.
+     */
+    private record Query(String name, SearchMode mode) {
+
+        static Query of(SpaceshipFilter filter) {
+            String name = filter.getName() == null ? "" : filter.getName().toLowerCase(Locale.ROOT);
+            return new Query(name, filter.getMode() == SearchMode.PREFIX ? SearchMode.PREFIX : SearchMode.CONTAINS);
+        }
+
+        boolean matches(String spaceshipName) {
+            String normalized = spaceshipName.toLowerCase(Locale.ROOT);
+            return mode == SearchMode.PREFIX ? normalized.startsWith(name) : normalized.contains(name);
+        }
+
+        long hash() {
+            return name.hashCode() * 31L + mode.ordinal();
+        }
+    }
+}
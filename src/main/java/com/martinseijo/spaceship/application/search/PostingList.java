@@ -0,0 +1,68 @@
+package com.martinseijo.spaceship.application.search;
+
+import java.util.Arrays;
+
+final class PostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Intersects the first {@code length} sorted ids of {@code candidates} with this list in place and
+     * returns how many ids survived.
+     */
+    int retainAll(long[] candidates, int length) {
+        int kept = 0;
+        int cursor = 0;
+        for (int i = 0; i < length && cursor < size; i++) {
+            long candidate = candidates[i];
+            while (cursor < size && ids[cursor] < candidate) {
+                cursor++;
+            }
+            if (cursor < size && ids[cursor] == candidate) {
+                candidates[kept++] = candidate;
+                cursor++;
+            }
+        }
+        return kept;
+    }
+}
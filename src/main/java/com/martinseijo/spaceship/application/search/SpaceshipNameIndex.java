@@ -0,0 +1,380 @@
+package com.martinseijo.spaceship.application.search;
+
+import com.martinseijo.spaceship.application.dto.SearchMode;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.event.Tombstones;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * In-process trigram inverted index over spaceship names. Posting lists are sorted primitive id
+ * arrays, so a substring query is answered by intersecting the lists of its trigrams and verifying
+ * the few surviving candidates instead of scanning the table.
+ *
+ * <p>The index is not {@linkplain #isReady() ready} until its first load completes, so searches go
+ * to the database meanwhile instead of finding nothing. A load builds new maps on the side;
+ * changes committed during it are applied to the current maps and also recorded, then replayed on
+ * the new ones before they are swapped in, so no rename or delete is lost. Each name keeps its
+ * version, so a rename older than the indexed one is ignored, and a deleted id keeps a
+ * {@link Tombstones tombstone} for a minute so a late rename cannot put it back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SpaceshipNameIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final char START = '\u0002';
+    private static final char END = '\u0003';
+    private static final double FUZZY_THRESHOLD = 0.3;
+    private static final long[] NO_IDS = new long[0];
+    private static final Duration TOMBSTONE_TTL = Duration.ofMinutes(1);
+
+    private final SpaceshipRepository repository;
+    private final EntityManager entityManager;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Tombstones tombstones = new Tombstones(TOMBSTONE_TTL);
+
+    @Value("${spaceship.search.index.enabled:true}")
+    private boolean enabled;
+
+    private Map<Long, IndexedName> names = new HashMap<>();
+    private Map<Long, PostingList> postings = new HashMap<>();
+    private List<Change> changesWhileLoading;
+    private volatile boolean loaded;
+    private volatile boolean restored;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether searches can be answered from the index: it is enabled and has been loaded.
+     */
+    public boolean isReady() {
+        return enabled && loaded;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = "!@spaceshipNameIndex.restored")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        int size = load((freshNames, freshPostings) -> {
+            try (Stream<Spaceship> spaceships = repository.streamAll()) {
+                spaceships.forEach(spaceship -> {
+                    index(freshNames, freshPostings, spaceship.getId(), spaceship.getName(), spaceship.getVersion());
+                    entityManager.detach(spaceship);
+                });
+            }
+        });
+        log.info("Spaceship name index rebuilt with {} entries", size);
+    }
+
+    /**
+     * Loads the index from a snapshot instead of the database; the rebuild normally run when the
+     * application is ready is then skipped.
+     */
+    public void restore(Stream<SpaceshipDTO> spaceships) {
+        if (!enabled) {
+            return;
+        }
+        int size = load((freshNames, freshPostings) -> spaceships.forEach(
+                spaceship -> index(freshNames, freshPostings, spaceship.getId(), spaceship.getName(), spaceship.getVersion())));
+        restored = true;
+        log.info("Spaceship name index restored with {} entries", size);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceshipChanged(SpaceshipChangedEvent event) {
+        if (!enabled || event.id() == null) {
+            return;
+        }
+        if (event.type() == SpaceshipChangeType.DELETED) {
+            remove(event.id(), event.version());
+        } else {
+            put(event.id(), event.name(), event.version());
+        }
+    }
+
+    public void put(long id, String name) {
+        put(id, name, null);
+    }
+
+    public void put(long id, String name, Long version) {
+        apply(new Change(id, version, name));
+    }
+
+    public void remove(long id, Long version) {
+        apply(new Change(id, version, null));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids matching {@code query}, best match first. An empty query matches every
+     * spaceship in id order. Whitespace is matched as is, like the database's {@code LIKE}
+     * fallback, so both paths return the same rows.
+     */
+    public long[] search(String query, SearchMode mode) {
+        lock.readLock().lock();
+        try {
+            if (query == null || query.isEmpty()) {
+                return allIds();
+            }
+            String normalized = normalize(query);
+            return switch (mode == null ? SearchMode.CONTAINS : mode) {
+                case PREFIX -> substringSearch(START + normalized, normalized, true);
+                case FUZZY -> fuzzySearch(normalized);
+                case CONTAINS -> substringSearch(normalized, normalized, false);
+            };
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (changesWhileLoading != null) {
+                changesWhileLoading.add(change);
+            }
+            change.applyTo(names, postings, tombstones);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fills new maps with {@code loader}, replays the changes committed meanwhile and swaps them
+     * in, returning the number of names indexed. If the load fails the current maps are kept,
+     * already patched with those changes.
+     */
+    private synchronized int load(BiConsumer<Map<Long, IndexedName>, Map<Long, PostingList>> loader) {
+        lock.writeLock().lock();
+        try {
+            changesWhileLoading = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, IndexedName> freshNames = new HashMap<>();
+        Map<Long, PostingList> freshPostings = new HashMap<>();
+        boolean completed = false;
+        try {
+            loader.accept(freshNames, freshPostings);
+            completed = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (completed) {
+                    changesWhileLoading.forEach(change -> change.applyTo(freshNames, freshPostings, tombstones));
+                    names = freshNames;
+                    postings = freshPostings;
+                    loaded = true;
+                }
+                changesWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return freshNames.size();
+    }
+
+    private long[] substringSearch(String gramSource, String normalized, boolean prefix) {
+        long[] candidates = gramSource.length() < GRAM_LENGTH ? allIds() : intersect(grams(gramSource));
+        List<Hit> hits = new ArrayList<>();
+        for (long id : candidates) {
+            String name = names.get(id).normalized();
+            int position = name.indexOf(normalized);
+            if (position < 0 || (prefix && position != 0)) {
+                continue;
+            }
+            hits.add(new Hit(id, rank(name, normalized, position), name.length()));
+        }
+        hits.sort(Comparator.comparingDouble(Hit::score).thenComparingInt(Hit::length).thenComparingLong(Hit::id));
+        return toIds(hits);
+    }
+
+    private long[] fuzzySearch(String normalized) {
+        long[] queryGrams = grams(START + normalized + END);
+        if (queryGrams.length == 0) {
+            return NO_IDS;
+        }
+        Map<Long, int[]> shared = new HashMap<>();
+        for (long gram : queryGrams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                shared.computeIfAbsent(list.get(i), id -> new int[1])[0]++;
+            }
+        }
+        List<Hit> hits = new ArrayList<>();
+        shared.forEach((id, count) -> {
+            int nameGrams = names.get(id).grams();
+            double similarity = (double) count[0] / (queryGrams.length + nameGrams - count[0]);
+            if (similarity >= FUZZY_THRESHOLD) {
+                hits.add(new Hit(id, -similarity, names.get(id).normalized().length()));
+            }
+        });
+        hits.sort(Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::id));
+        return toIds(hits);
+    }
+
+    private long[] intersect(long[] queryGrams) {
+        PostingList[] lists = new PostingList[queryGrams.length];
+        for (int i = 0; i < queryGrams.length; i++) {
+            lists[i] = postings.get(queryGrams[i]);
+            if (lists[i] == null) {
+                return NO_IDS;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+        long[] candidates = lists[0].toArray();
+        int length = candidates.length;
+        for (int i = 1; i < lists.length && length > 0; i++) {
+            length = lists[i].retainAll(candidates, length);
+        }
+        return Arrays.copyOf(candidates, length);
+    }
+
+    private long[] allIds() {
+        return names.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static void unindex(Map<Long, IndexedName> names, Map<Long, PostingList> postings, long id) {
+        IndexedName previous = names.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (long gram : grams(START + previous.normalized() + END)) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static void index(Map<Long, IndexedName> names, Map<Long, PostingList> postings, Long id, String name, Long version) {
+        if (id == null || name == null) {
+            return;
+        }
+        String normalized = normalize(name);
+        long[] nameGrams = grams(START + normalized + END);
+        for (long gram : nameGrams) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+        }
+        names.put(id, new IndexedName(normalized, nameGrams.length, version));
+    }
+
+    private static double rank(String name, String query, int position) {
+        if (name.length() == query.length()) {
+            return 0;
+        }
+        if (position == 0) {
+            return 1;
+        }
+        return name.charAt(position - 1) == ' ' ? 2 : 3;
+    }
+
+    private static long[] grams(String text) {
+        int count = text.length() - GRAM_LENGTH + 1;
+        if (count <= 0) {
+            return NO_IDS;
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int unique = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[unique - 1]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return unique == count ? grams : Arrays.copyOf(grams, unique);
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] toIds(List<Hit> hits) {
+        long[] ids = new long[hits.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = hits.get(i).id();
+        }
+        return ids;
+    }
+
+    private record IndexedName(String normalized, int grams, Long version) {
+    }
+
+    /**
+     * A committed change: the new name, or {@code null} for a removal, with the version it was
+     * committed at. Renames that the index or a tombstone show to be stale are skipped.
+     */
+    private record Change(long id, Long version, String name) {
+
+        void applyTo(Map<Long, IndexedName> names, Map<Long, PostingList> postings, Tombstones tombstones) {
+            if (name == null) {
+                unindex(names, postings, id);
+                tombstones.add(id, version);
+                return;
+            }
+            if (tombstones.hides(id, version)) {
+                return;
+            }
+            IndexedName indexed = names.get(id);
+            if (version != null && indexed != null && indexed.version() != null && indexed.version() > version) {
+                return;
+            }
+            unindex(names, postings, id);
+            index(names, postings, id, name, version);
+        }
+    }
+
+    private record Hit(long id, double score, int length) {
+    }
+}
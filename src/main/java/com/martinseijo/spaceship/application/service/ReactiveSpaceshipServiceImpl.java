@@ -0,0 +1,291 @@
+package com.martinseijo.spaceship.application.service;
+
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.dto.SpaceshipSlice;
+import com.martinseijo.spaceship.application.pagination.KeysetCursor;
+import com.martinseijo.spaceship.application.search.SpaceshipNameIndex;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+import com.martinseijo.spaceship.domain.exception.InvalidSpaceshipException;
+import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.exception.VersionConflictException;
+import com.martinseijo.spaceship.domain.service.ReactiveSpaceshipService;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Non-blocking twin of {@link SpaceshipServiceImpl} on R2DBC. It reads and writes the same
+ * {@code spaceship} table through {@link DatabaseClient}, so rows are streamed to the caller as the
+ * driver produces them and no request holds a thread while waiting on the database. Writes append
+ * to the same change log, publish the same {@link SpaceshipChangedEvent}s and refresh the same
+ * caches as the blocking service. Those refreshes and the synchronous event listeners block, so
+ * they run on {@link Schedulers#boundedElastic()} rather than on the event loop that completed the
+ * transaction.
+ */
+@Service
+@ConditionalOnProperty(name = "spaceship.reactive.enabled", havingValue = "true")
+public class ReactiveSpaceshipServiceImpl implements ReactiveSpaceshipService {
+
+    private static final String SPACESHIP_NOT_FOUND = "Spaceship not found with id ";
+    private static final int MAX_SCROLL_SIZE = 1000;
+    private static final String SELECT = "SELECT id, name, version FROM spaceship";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final SpaceshipNameIndex nameIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+
+    public ReactiveSpaceshipServiceImpl(DatabaseClient databaseClient,
+                                        TransactionalOperator transactionalOperator,
+                                        SpaceshipNameIndex nameIndex,
+                                        ApplicationEventPublisher eventPublisher,
+                                        CacheManager cacheManager) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.nameIndex = nameIndex;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Flux<SpaceshipDTO> getAllSpaceships() {
+        return databaseClient.sql(SELECT + " ORDER BY id")
+                .map(ReactiveSpaceshipServiceImpl::toDTO)
+                .all();
+    }
+
+    @Override
+    public Mono<SpaceshipDTO> getById(Long id) {
+        return findById(id).switchIfEmpty(notFound(id));
+    }
+
+    @Override
+    public Flux<SpaceshipDTO> getSpaceshipsByFilter(SpaceshipFilter filter, Pageable pageable) {
+        if (nameIndex.isReady()) {
+            return searchIndex(filter, pageable);
+        }
+        String sql = SELECT + " WHERE LOWER(name) LIKE :pattern ESCAPE '!' ORDER BY id"
+                + (pageable.isPaged() ? " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset() : "");
+        return databaseClient.sql(sql)
+                .bind("pattern", filter.likePattern())
+                .map(ReactiveSpaceshipServiceImpl::toDTO)
+                .all();
+    }
+
+    @Override
+    public Mono<SpaceshipSlice> getSpaceshipsScroll(String cursor, int size, ScrollOrder order) {
+        if (size < 1) {
+            return Mono.error(new InvalidInputException("Page size must be greater than zero"));
+        }
+        KeysetCursor position = KeysetCursor.resume(cursor, order);
+        int limit = Math.min(size, MAX_SCROLL_SIZE);
+        DatabaseClient.GenericExecuteSpec query;
+        if (position.order() == ScrollOrder.NAME) {
+            query = position.isFirst()
+                    ? databaseClient.sql(SELECT + " ORDER BY name, id LIMIT :limit")
+                    : databaseClient.sql(SELECT + " WHERE name > :name OR (name = :name AND id > :id) ORDER BY name, id LIMIT :limit")
+                            .bind("name", position.name())
+                            .bind("id", position.id());
+        } else {
+            query = databaseClient.sql(SELECT + " WHERE id > :id ORDER BY id LIMIT :limit")
+                    .bind("id", position.id());
+        }
+        return query.bind("limit", limit + 1)
+                .map(ReactiveSpaceshipServiceImpl::toDTO)
+                .all()
+                .collectList()
+                .map(rows -> toSlice(rows, limit, position.order()));
+    }
+
+    /**
+     * Ids come from one sequence value per row; Hibernate's pooled optimizer only hands out ids
+     * from the blocks anchored at the values it fetched itself, so the two never collide.
+     */
+    @Override
+    public Mono<SpaceshipDTO> create(SpaceshipDTO dto) {
+        if (dto.getName() == null || dto.getName().isEmpty()) {
+            return Mono.error(new InvalidSpaceshipException("Spaceship name cannot be null or empty"));
+        }
+        return databaseClient.sql("SELECT NEXT VALUE FOR spaceship_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.sql("INSERT INTO spaceship (id, name, version) VALUES (:id, :name, 0)")
+                        .bind("id", id)
+                        .bind("name", dto.getName())
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(spaceship(id, dto.getName(), 0L)))
+                .flatMap(created -> logged(SpaceshipChangeType.CREATED, created))
+                .as(transactionalOperator::transactional)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(created -> changed(SpaceshipChangeType.CREATED, created));
+    }
+
+    /**
+     * Renames with a single {@code UPDATE} that bumps the version, guarded by the expected version
+     * when the DTO carries one. The statement is atomic, so unconditional updates never need a retry.
+     */
+    @Override
+    public Mono<SpaceshipDTO> update(SpaceshipDTO dto) {
+        if (dto.getName() == null) {
+            return getById(dto.getId()).flatMap(current -> checkVersion(current, dto.getVersion()));
+        }
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql("UPDATE spaceship SET name = :name, version = version + 1 WHERE id = :id"
+                        + (dto.getVersion() == null ? "" : " AND version = :version"))
+                .bind("name", dto.getName())
+                .bind("id", dto.getId());
+        if (dto.getVersion() != null) {
+            statement = statement.bind("version", dto.getVersion());
+        }
+        return statement.fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated == 0
+                        ? getById(dto.getId()).flatMap(current -> checkVersion(current, dto.getVersion()))
+                        : findById(dto.getId()).flatMap(row -> logged(SpaceshipChangeType.UPDATED, row)))
+                .as(transactionalOperator::transactional)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(updated -> changed(SpaceshipChangeType.UPDATED, updated));
+    }
+
+    /**
+     * Deletes the version that was read, like the blocking service's guarded {@code DELETE}: if a
+     * concurrent write or delete got there first nothing is logged or published, and the caller
+     * gets a conflict to retry against the fresh row.
+     */
+    @Override
+    public Mono<SpaceshipDTO> delete(Long id) {
+        return getById(id)
+                .flatMap(existing -> databaseClient.sql("DELETE FROM spaceship WHERE id = :id AND version = :version")
+                        .bind("id", id)
+                        .bind("version", existing.getVersion())
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(deleted -> deleted == 0
+                                ? Mono.<SpaceshipDTO>error(new OptimisticLockingFailureException("Spaceship " + id + " was modified concurrently"))
+                                : Mono.just(existing)))
+                .flatMap(deleted -> logged(SpaceshipChangeType.DELETED, deleted))
+                .as(transactionalOperator::transactional)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(deleted -> changed(SpaceshipChangeType.DELETED, deleted));
+    }
+
+    private Flux<SpaceshipDTO> searchIndex(SpaceshipFilter filter, Pageable pageable) {
+        long[] ids = nameIndex.search(filter.getName(), filter.getMode());
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), ids.length) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), ids.length) : ids.length;
+        if (from == to) {
+            return Flux.empty();
+        }
+        List<Long> pageIds = Arrays.stream(ids, from, to).boxed().toList();
+        return databaseClient.sql(SELECT + " WHERE id IN (:ids)")
+                .bind("ids", pageIds)
+                .map(ReactiveSpaceshipServiceImpl::toDTO)
+                .all()
+                .collectMap(SpaceshipDTO::getId)
+                .flatMapIterable(found -> inOrder(pageIds, found));
+    }
+
+    private Mono<SpaceshipDTO> findById(Long id) {
+        return databaseClient.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveSpaceshipServiceImpl::toDTO)
+                .one();
+    }
+
+    /**
+     * Appends the change to the change log in the current R2DBC transaction, taking the same
+     * head-row lock as {@link SpaceshipChangeLog} so both stacks share one gap-free sequence.
+     */
+    private Mono<SpaceshipDTO> logged(SpaceshipChangeType type, SpaceshipDTO spaceship) {
+        return databaseClient.sql("UPDATE spaceship_change_head SET seq = seq + 1")
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql("INSERT INTO spaceship_change (seq, spaceship_id, change_type, name, version, changed_at)"
+                                + " SELECT seq, :id, :type, :name, :version, CURRENT_TIMESTAMP FROM spaceship_change_head")
+                        .bind("id", spaceship.getId())
+                        .bind("type", type.name())
+                        .bind("name", spaceship.getName())
+                        .bind("version", spaceship.getVersion())
+                        .fetch()
+                        .rowsUpdated())
+                .thenReturn(spaceship);
+    }
+
+    private void changed(SpaceshipChangeType type, SpaceshipDTO spaceship) {
+        Cache cache = cacheManager.getCache(CacheNames.SPACESHIP);
+        if (cache != null) {
+            if (type == SpaceshipChangeType.DELETED) {
+                cache.evict(spaceship.getId());
+            } else {
+                cache.put(spaceship.getId(), spaceship);
+            }
+        }
+        for (String name : List.of(CacheNames.SPACESHIPS, CacheNames.SPACESHIP_PAGES, CacheNames.SPACESHIP_SEARCH)) {
+            Cache listCache = cacheManager.getCache(name);
+            if (listCache != null) {
+                listCache.clear();
+            }
+        }
+        eventPublisher.publishEvent(new SpaceshipChangedEvent(type, spaceship.getId(), spaceship.getName(), spaceship.getVersion()));
+    }
+
+    private static Mono<SpaceshipDTO> checkVersion(SpaceshipDTO current, Long expected) {
+        if (expected != null && !expected.equals(current.getVersion())) {
+            return Mono.error(new VersionConflictException("Spaceship " + current.getId() + " is at version "
+                    + current.getVersion() + ", not " + expected));
+        }
+        return Mono.just(current);
+    }
+
+    private static <T> Mono<T> notFound(Long id) {
+        return Mono.error(new ResourceNotFoundException(SPACESHIP_NOT_FOUND + id));
+    }
+
+    private static SpaceshipSlice toSlice(List<SpaceshipDTO> rows, int limit, ScrollOrder order) {
+        boolean hasNext = rows.size() > limit;
+        List<SpaceshipDTO> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            SpaceshipDTO last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(order, last.getId(), last.getName()).encode();
+        }
+        return new SpaceshipSlice(content, content.size(), hasNext, nextCursor);
+    }
+
+    private static List<SpaceshipDTO> inOrder(List<Long> ids, Map<Long, SpaceshipDTO> found) {
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    private static SpaceshipDTO toDTO(Readable row) {
+        return spaceship(row.get("id", Long.class), row.get("name", String.class), row.get("version", Long.class));
+    }
+
+    private static SpaceshipDTO spaceship(Long id, String name, Long version) {
+        SpaceshipDTO dto = new SpaceshipDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setVersion(version);
+        return dto;
+    }
+}
@@ -0,0 +1,203 @@
+package com.martinseijo.spaceship.application.service;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.domain.exception.ServiceOverloadedException;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in DataLoader-style batching of id lookups. Ids requested by concurrent callers are
+ * collected for up to {@code window} or until {@code max-batch-size} distinct ids are waiting, and
+ * are then fetched with one {@code IN} query; callers asking for an id already in the open batch
+ * share its result, each through its own future. Batches run on {@code workers} threads, so at most
+ * that many queries are in flight, and at most {@code queue-capacity} more wait for one; further
+ * batches fail at once as overloaded. A caller never waits longer than {@code timeout} for its
+ * result; once every caller of an id has timed out or cancelled its future the id is given up, and
+ * a queued batch whose ids have all been given up is dropped unqueried.
+ */
+@Component
+@Slf4j
+public class SpaceshipBatchLoader {
+
+    private final SpaceshipRepository repository;
+    private final SpaceshipMapper mapper;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Duration timeout;
+    private final DistributionSummary batchSizes;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final Object lock = new Object();
+    private Map<Long, Pending> batch = new HashMap<>();
+
+    public SpaceshipBatchLoader(SpaceshipRepository repository,
+                                SpaceshipMapper mapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${spaceship.batch-loader.enabled:false}") boolean enabled,
+                                @Value("${spaceship.batch-loader.max-batch-size:100}") int maxBatchSize,
+                                @Value("${spaceship.batch-loader.window:PT0.001S}") Duration window,
+                                @Value("${spaceship.batch-loader.timeout:PT5S}") Duration timeout,
+                                @Value("${spaceship.batch-loader.workers:5}") int workers,
+                                @Value("${spaceship.batch-loader.queue-capacity:100}") int queueCapacity) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.timeout = timeout;
+        this.batchSizes = DistributionSummary.builder("spaceship.batch-loader.batch.size")
+                .description("Distinct ids fetched per query issued by the batch loader")
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("spaceship-batch-loader-timer").daemon().factory());
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("spaceship-batch-loader-", 0).daemon().factory());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the spaceship, or {@code null} when it does not exist.
+     */
+    public SpaceshipDTO load(Long id) {
+        CompletableFuture<SpaceshipDTO> future = loadAsync(id);
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for spaceship " + id);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new ServiceOverloadedException("Timed out waiting for spaceship " + id + ", try again later");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Enqueues the id in the open batch and returns a future completed with the spaceship, or with
+     * {@code null} when it does not exist. Cancelling the returned future withdraws this caller's
+     * interest without affecting other callers of the same id.
+     */
+    public CompletableFuture<SpaceshipDTO> loadAsync(Long id) {
+        Map<Long, Pending> full = null;
+        Pending pending;
+        synchronized (lock) {
+            pending = batch.get(id);
+            if (pending == null || pending.result.isDone()) {
+                pending = new Pending();
+                batch.put(id, pending);
+                if (batch.size() >= maxBatchSize) {
+                    full = batch;
+                    batch = new HashMap<>();
+                } else if (batch.size() == 1) {
+                    Map<Long, Pending> opened = batch;
+                    scheduler.schedule(() -> dispatchIfOpen(opened), windowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            pending.waiters++;
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        Pending joined = pending;
+        CompletableFuture<SpaceshipDTO> future = joined.result.copy();
+        future.whenComplete((spaceship, error) -> {
+            if (error instanceof CancellationException) {
+                leave(joined);
+            }
+        });
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdown();
+    }
+
+    /**
+     * Drops a caller's interest in an id, and gives the id up once no caller is left waiting for it.
+     */
+    private void leave(Pending pending) {
+        synchronized (lock) {
+            if (--pending.waiters == 0) {
+                pending.result.cancel(false);
+            }
+        }
+    }
+
+    private void dispatchIfOpen(Map<Long, Pending> opened) {
+        synchronized (lock) {
+            if (batch != opened) {
+                return;
+            }
+            batch = new HashMap<>();
+        }
+        dispatch(opened);
+    }
+
+    private void dispatch(Map<Long, Pending> pending) {
+        try {
+            workers.execute(() -> fetch(pending));
+        } catch (RejectedExecutionException e) {
+            ServiceOverloadedException overloaded = new ServiceOverloadedException("Too many spaceship lookups waiting, try again later");
+            pending.values().forEach(waiting -> waiting.result.completeExceptionally(overloaded));
+        } catch (RuntimeException e) {
+            pending.values().forEach(waiting -> waiting.result.completeExceptionally(e));
+        }
+    }
+
+    private void fetch(Map<Long, Pending> pending) {
+        if (pending.values().stream().allMatch(waiting -> waiting.result.isDone())) {
+            return;
+        }
+        batchSizes.record(pending.size());
+        try {
+            Map<Long, SpaceshipDTO> found = repository.findViewsByIds(pending.keySet()).stream()
+                    .map(mapper::toDTO)
+                    .collect(Collectors.toMap(SpaceshipDTO::getId, spaceship -> spaceship, (first, second) -> first));
+            pending.forEach((id, waiting) -> waiting.result.complete(found.get(id)));
+        } catch (RuntimeException e) {
+            log.warn("Batched lookup of {} spaceships failed: {}", pending.size(), e.getMessage());
+            pending.values().forEach(waiting -> waiting.result.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * The shared result of one id in a batch and the number of callers still waiting for it.
+     */
+    private static final class Pending {
+
+        private final CompletableFuture<SpaceshipDTO> result = new CompletableFuture<>();
+        private int waiters;
+    }
+}
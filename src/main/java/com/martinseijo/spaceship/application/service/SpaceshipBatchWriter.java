@@ -0,0 +1,273 @@
+package com.martinseijo.spaceship.application.service;
+
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.application.dto.BatchItemResult;
+import com.martinseijo.spaceship.application.dto.BatchItemStatus;
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Applies collections of mutations in chunks of {@code spaceship.batch.size} rows, one transaction
+ * and one JDBC batch per chunk. Every row gets its own result: rows that fail validation are
+ * reported without touching the database, and when a chunk fails as a whole its rows are retried
+ * one by one so a single bad row cannot sink its neighbours. When the caller already runs a
+ * transaction the chunks join it instead, and a failing chunk fails the whole call, since the
+ * caller's transaction can no longer commit. Cache writes go through the transaction-aware cache
+ * manager, which defers them until the commit, so a rolled back chunk never leaves its rows behind
+ * in them. An update that leaves a row as it was succeeds without publishing a change or touching
+ * the caches, like a single update without a name.
+ */
+@Component
+@Slf4j
+public class SpaceshipBatchWriter {
+
+    private static final String SPACESHIP_NOT_FOUND = "Spaceship not found with id ";
+
+    private final SpaceshipRepository repository;
+    private final SpaceshipMapper mapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final int batchSize;
+    private final int maxItems;
+
+    public SpaceshipBatchWriter(SpaceshipRepository repository,
+                                SpaceshipMapper mapper,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                CacheManager cacheManager,
+                                @Value("${spaceship.batch.size:50}") int batchSize,
+                                @Value("${spaceship.batch.max-items:10000}") int maxItems) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    public BatchResult createAll(List<SpaceshipDTO> dtos) {
+        checkSize(dtos);
+        BatchItemResult[] results = new BatchItemResult[dtos.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            SpaceshipDTO dto = dtos.get(i);
+            if (dto == null || dto.getName() == null || dto.getName().isEmpty()) {
+                results[i] = BatchItemResult.failed(i, null, "Spaceship name cannot be null or empty");
+            } else if (!names.add(dto.getName())) {
+                results[i] = BatchItemResult.failed(i, null, "Duplicate spaceship name in batch: " + dto.getName());
+            } else {
+                pending.add(i);
+            }
+        }
+        writeInChunks(pending, results, index -> null, chunk -> {
+            Set<String> existing = new HashSet<>(repository.findExistingNames(
+                    chunk.stream().map(index -> dtos.get(index).getName()).toList()));
+            List<BatchItemResult> written = new ArrayList<>();
+            List<Integer> accepted = new ArrayList<>();
+            List<Spaceship> entities = new ArrayList<>();
+            for (int index : chunk) {
+                String name = dtos.get(index).getName();
+                if (existing.contains(name)) {
+                    written.add(BatchItemResult.failed(index, null, "Spaceship name already exists: " + name));
+                } else {
+                    accepted.add(index);
+                    entities.add(Spaceship.builder().name(name).build());
+                }
+            }
+            repository.saveAll(entities);
+            flushAndClear();
+            for (int i = 0; i < entities.size(); i++) {
+                Spaceship entity = entities.get(i);
+                publish(SpaceshipChangeType.CREATED, entity);
+                written.add(BatchItemResult.success(accepted.get(i), BatchItemStatus.CREATED, mapper.toDTO(entity)));
+            }
+            evictListCaches();
+            return written;
+        });
+        return BatchResult.of(Arrays.asList(results));
+    }
+
+    public BatchResult updateAll(List<SpaceshipDTO> dtos) {
+        checkSize(dtos);
+        BatchItemResult[] results = new BatchItemResult[dtos.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            SpaceshipDTO dto = dtos.get(i);
+            if (dto == null || dto.getId() == null) {
+                results[i] = BatchItemResult.failed(i, null, "Spaceship id cannot be null");
+            } else if (!ids.add(dto.getId())) {
+                results[i] = BatchItemResult.failed(i, dto.getId(), "Duplicate spaceship id in batch: " + dto.getId());
+            } else {
+                pending.add(i);
+            }
+        }
+        writeInChunks(pending, results, index -> dtos.get(index).getId(), chunk -> {
+            Map<Long, Spaceship> found = findAllById(chunk.stream().map(index -> dtos.get(index).getId()).toList());
+            List<BatchItemResult> written = new ArrayList<>();
+            List<Integer> accepted = new ArrayList<>();
+            List<Spaceship> entities = new ArrayList<>();
+            for (int index : chunk) {
+                SpaceshipDTO dto = dtos.get(index);
+                Spaceship entity = found.get(dto.getId());
+                if (entity == null) {
+                    written.add(BatchItemResult.failed(index, dto.getId(), SPACESHIP_NOT_FOUND + dto.getId()));
+                    continue;
+                }
+                if (dto.getVersion() != null && !dto.getVersion().equals(entity.getVersion())) {
+                    written.add(BatchItemResult.failed(index, dto.getId(),
+                            "Spaceship " + dto.getId() + " is at version " + entity.getVersion() + ", not " + dto.getVersion()));
+                    continue;
+                }
+                if (dto.getName() == null || dto.getName().equals(entity.getName())) {
+                    written.add(BatchItemResult.success(index, BatchItemStatus.UPDATED, mapper.toDTO(entity)));
+                    continue;
+                }
+                entity.setName(dto.getName());
+                accepted.add(index);
+                entities.add(entity);
+            }
+            flushAndClear();
+            List<SpaceshipDTO> updates = new ArrayList<>();
+            for (int i = 0; i < entities.size(); i++) {
+                Spaceship entity = entities.get(i);
+                SpaceshipDTO updated = mapper.toDTO(entity);
+                publish(SpaceshipChangeType.UPDATED, entity);
+                updates.add(updated);
+                written.add(BatchItemResult.success(accepted.get(i), BatchItemStatus.UPDATED, updated));
+            }
+            Cache cache = cacheManager.getCache(CacheNames.SPACESHIP);
+            updates.forEach(updated -> cache.put(updated.getId(), updated));
+            evictListCaches();
+            return written;
+        });
+        return BatchResult.of(Arrays.asList(results));
+    }
+
+    public BatchResult deleteAll(List<Long> ids) {
+        checkSize(ids);
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results[i] = BatchItemResult.failed(i, null, "Spaceship id cannot be null");
+            } else if (!seen.add(id)) {
+                results[i] = BatchItemResult.failed(i, id, "Duplicate spaceship id in batch: " + id);
+            } else {
+                pending.add(i);
+            }
+        }
+        writeInChunks(pending, results, ids::get, chunk -> {
+            Map<Long, Spaceship> found = findAllById(chunk.stream().map(ids::get).toList());
+            List<BatchItemResult> written = new ArrayList<>();
+            for (int index : chunk) {
+                Spaceship entity = found.get(ids.get(index));
+                written.add(entity == null
+                        ? BatchItemResult.failed(index, ids.get(index), SPACESHIP_NOT_FOUND + ids.get(index))
+                        : BatchItemResult.success(index, BatchItemStatus.DELETED, mapper.toDTO(entity)));
+            }
+            repository.deleteAllInBatch(found.values());
+            found.values().forEach(entity -> publish(SpaceshipChangeType.DELETED, entity));
+            Cache cache = cacheManager.getCache(CacheNames.SPACESHIP);
+            found.keySet().forEach(cache::evict);
+            evictListCaches();
+            return written;
+        });
+        return BatchResult.of(Arrays.asList(results));
+    }
+
+    private void writeInChunks(List<Integer> pending, BatchItemResult[] results, IntFunction<Long> idOf,
+                               Function<List<Integer>, List<BatchItemResult>> chunkWriter) {
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            writeChunk(pending.subList(from, Math.min(from + batchSize, pending.size())), results, idOf, chunkWriter);
+        }
+    }
+
+    private void writeChunk(List<Integer> chunk, BatchItemResult[] results, IntFunction<Long> idOf,
+                            Function<List<Integer>, List<BatchItemResult>> chunkWriter) {
+        try {
+            List<BatchItemResult> written = transactionTemplate.execute(status -> chunkWriter.apply(chunk));
+            if (written != null) {
+                written.forEach(result -> results[result.getIndex()] = result);
+            }
+        } catch (RuntimeException e) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            if (chunk.size() == 1) {
+                int index = chunk.get(0);
+                log.warn("Batch row {} failed: {}", index, e.getMessage());
+                results[index] = BatchItemResult.failed(index, idOf.apply(index), e.getMessage());
+                return;
+            }
+            log.warn("Batch chunk of {} rows failed, retrying row by row: {}", chunk.size(), e.getMessage());
+            chunk.forEach(index -> writeChunk(List.of(index), results, idOf, chunkWriter));
+        }
+    }
+
+    private Map<Long, Spaceship> findAllById(List<Long> ids) {
+        return repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Spaceship::getId, Function.identity()));
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void evictListCaches() {
+        for (String name : List.of(CacheNames.SPACESHIPS, CacheNames.SPACESHIP_PAGES, CacheNames.SPACESHIP_SEARCH)) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private void publish(SpaceshipChangeType type, Spaceship entity) {
+        eventPublisher.publishEvent(new SpaceshipChangedEvent(type, entity.getId(), entity.getName(), entity.getVersion()));
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null) {
+            throw new InvalidInputException("Batch cannot be null");
+        }
+        if (items.size() > maxItems) {
+            throw new InvalidInputException("Batch cannot contain more than " + maxItems + " items");
+        }
+    }
+}
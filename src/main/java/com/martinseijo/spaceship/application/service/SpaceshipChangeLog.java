@@ -0,0 +1,126 @@
+package com.martinseijo.spaceship.application.service;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipChangeDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipChangePage;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.exception.ChangeFeedExpiredException;
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+import com.martinseijo.spaceship.domain.model.SpaceshipChange;
+import com.martinseijo.spaceship.domain.repository.SpaceshipChangeRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Durable, ordered log of spaceship changes backing the incremental sync feed. Each
+ * {@link SpaceshipChangedEvent} is appended inside the transaction that caused it, so a change is
+ * logged if and only if it commits. Sequence numbers come from a single head row that every writer
+ * increments just before committing; the row lock is held until commit, so changes become visible
+ * strictly in sequence order and a reader resuming after {@code seq} never misses a smaller number
+ * committed later. Entries older than {@code spaceship.changes.retention} are pruned, and readers
+ * asking for pruned history are told to resync.
+ */
+@Component
+@Slf4j
+public class SpaceshipChangeLog {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final SpaceshipChangeRepository repository;
+    private final SpaceshipMapper mapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final Clock clock;
+
+    public SpaceshipChangeLog(SpaceshipChangeRepository repository,
+                              SpaceshipMapper mapper,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${spaceship.changes.retention:P7D}") Duration retention) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.clock = Clock.systemUTC();
+    }
+
+    /**
+     * Runs while the writing transaction is still open. Events published outside a JDBC
+     * transaction are not logged here; the reactive service appends its own entries in its R2DBC
+     * transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onSpaceshipChanged(SpaceshipChangedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        repository.advanceHead();
+        entityManager.persist(SpaceshipChange.builder()
+                .seq(repository.findHead())
+                .spaceshipId(event.id())
+                .type(event.type())
+                .name(event.name())
+                .version(event.version())
+                .changedAt(clock.instant())
+                .build());
+    }
+
+    /**
+     * Returns up to {@code limit} changes committed after {@code since}, oldest first. Without
+     * {@code since} no changes are returned and {@code nextSince} is the current head, which is
+     * where a client that has just downloaded the full catalogue should start following.
+     */
+    public SpaceshipChangePage getChanges(Long since, int limit) {
+        if (limit < 1) {
+            throw new InvalidInputException("Limit must be greater than zero");
+        }
+        if (since == null) {
+            return new SpaceshipChangePage(List.of(), repository.findHead(), false);
+        }
+        if (since < 0) {
+            throw new InvalidInputException("Since cannot be negative");
+        }
+        int pageSize = Math.min(limit, MAX_LIMIT);
+        List<SpaceshipChange> rows = repository.findBySeqGreaterThanOrderBySeqAsc(since, PageRequest.of(0, pageSize + 1));
+        long prunedThrough = repository.findPrunedThrough();
+        if (since < prunedThrough) {
+            throw new ChangeFeedExpiredException("Changes up to " + prunedThrough
+                    + " have been pruned, resync from GET /spaceships");
+        }
+        boolean hasMore = rows.size() > pageSize;
+        List<SpaceshipChangeDTO> changes = mapper.toChangeDTOList(hasMore ? rows.subList(0, pageSize) : rows);
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return new SpaceshipChangePage(changes, nextSince, hasMore);
+    }
+
+    @Scheduled(fixedDelayString = "${spaceship.changes.prune-interval:PT1H}")
+    public void prune() {
+        Instant cutoff = clock.instant().minus(retention);
+        Long prunedThrough = transactionTemplate.execute(status -> {
+            Long last = repository.findLastSeqBefore(cutoff);
+            if (last != null) {
+                repository.deleteThrough(last);
+                repository.updatePrunedThrough(last);
+            }
+            return last;
+        });
+        if (prunedThrough != null) {
+            log.info("Spaceship change log pruned through seq {}", prunedThrough);
+        }
+    }
+}
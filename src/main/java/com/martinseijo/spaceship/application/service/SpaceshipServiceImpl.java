@@ -1,64 +1,251 @@
 package com.martinseijo.spaceship.application.service;
 
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.application.cache.NativeCaches;
+import com.martinseijo.spaceship.application.dto.BatchItemStatus;
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.CountStrategy;
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
+import com.martinseijo.spaceship.application.dto.SpaceshipChangePage;
 import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
 import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.dto.SpaceshipLookup;
+import com.martinseijo.spaceship.application.dto.SpaceshipSlice;
 import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.application.pagination.KeysetCursor;
+import com.martinseijo.spaceship.application.search.PopularSearchCache;
+import com.martinseijo.spaceship.application.search.SpaceshipNameIndex;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
 import com.martinseijo.spaceship.domain.exception.InvalidSpaceshipException;
 import com.martinseijo.spaceship.domain.exception.PaginationException;
 import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.exception.VersionConflictException;
 import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.model.SpaceshipView;
 import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
 import com.martinseijo.spaceship.domain.service.SpaceshipService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class SpaceshipServiceImpl implements SpaceshipService {
 
     private static final String SPACESHIP_NOT_FOUND = "Spaceship not found with id ";
+    private static final int MAX_SCROLL_SIZE = 1000;
+    private static final String ALL_SPACESHIPS = "all";
 
     private final SpaceshipRepository repository;
     private final SpaceshipMapper mapper;
+    private final SpaceshipNameIndex nameIndex;
+    private final PopularSearchCache popularSearches;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SpaceshipBatchWriter batchWriter;
+    private final SpaceshipWriteBehindBuffer writeBehind;
+    private final SpaceshipBatchLoader batchLoader;
+    private final SpaceshipChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    @Value("${spaceship.update.max-attempts:3}")
+    private int maxUpdateAttempts;
+
+    @Value("${spaceship.multi-get.max-ids:1000}")
+    private int maxMultiGetIds;
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(CacheNames.SPACESHIPS)
     public List<SpaceshipDTO> getAllSpaceships() {
-        return mapper.toDTOList(repository.findAll());
+        return mapper.toViewDTOList(repository.findAllViews());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(CacheNames.SPACESHIP_PAGES)
     public Page<SpaceshipDTO> getAllSpaceshipsPaginated(Pageable pageable) {
         try {
-            return repository.findAll(pageable).map(mapper::toDTO);
+            return repository.findAllViews(pageable).map(mapper::toDTO);
+        } catch (Exception e) {
+            throw new PaginationException("Error retrieving paginated spaceships", e);
+        }
+    }
+
+    /**
+     * Only {@code EXACT} runs the count query on every call. {@code CACHED} and {@code ESTIMATED}
+     * fetch one row past the page and take the total from the count cache or from H2's table
+     * statistics, and {@code NONE} returns a slice without one. A page that reaches the end gets
+     * its exact total either way, since it is the offset plus the rows on it.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(CacheNames.SPACESHIP_PAGES)
+    public Slice<SpaceshipDTO> getAllSpaceshipsPaginated(Pageable pageable, CountStrategy count) {
+        try {
+            return switch (count) {
+                case EXACT -> repository.findAllViews(pageable).map(mapper::toDTO);
+                case CACHED -> withTotal(repository.sliceAllViews(pageable).map(mapper::toDTO), this::cachedCount);
+                case ESTIMATED -> withTotal(repository.sliceAllViews(pageable).map(mapper::toDTO), this::estimatedCount);
+                case NONE -> repository.sliceAllViews(pageable).map(mapper::toDTO);
+            };
         } catch (Exception e) {
             throw new PaginationException("Error retrieving paginated spaceships", e);
         }
     }
 
+    /**
+     * Reads through the cache, except while an update of the spaceship is buffered: the buffered
+     * state is returned as is and never cached, since it carries no version and may yet be dropped.
+     */
     @Override
-    @Cacheable("spaceship")
+    @Cacheable(value = CacheNames.SPACESHIP, sync = true, condition = "@spaceshipWriteBehindBuffer.pending(#id) == null")
     public SpaceshipDTO getById(Long id) throws ResourceNotFoundException {
-        return mapper.toDTO(repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(SPACESHIP_NOT_FOUND + id)));
+        SpaceshipDTO pending = writeBehind.pending(id);
+        if (pending != null) {
+            return pending;
+        }
+        if (batchLoader.isEnabled()) {
+            SpaceshipDTO spaceship = batchLoader.load(id);
+            if (spaceship == null) {
+                throw new ResourceNotFoundException(SPACESHIP_NOT_FOUND + id);
+            }
+            return spaceship;
+        }
+        return repository.findViewById(id)
+                .map(mapper::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException(SPACESHIP_NOT_FOUND + id));
     }
 
+    /**
+     * Resolves the ids through the spaceship cache, loading only the misses. Results follow the
+     * request order, duplicates included, and unknown ids come back as not-found markers.
+     */
     @Override
+    public List<SpaceshipLookup> getByIds(List<Long> ids) {
+        if (ids == null) {
+            throw new InvalidInputException("Ids cannot be null");
+        }
+        if (ids.size() > maxMultiGetIds) {
+            throw new InvalidInputException("Cannot look up more than " + maxMultiGetIds + " spaceships at once");
+        }
+        Map<Long, SpaceshipDTO> resolved = resolve(ids);
+        return ids.stream()
+                .map(id -> {
+                    SpaceshipDTO spaceship = id == null ? null : resolved.get(id);
+                    return spaceship == null ? SpaceshipLookup.missing(id) : SpaceshipLookup.found(spaceship);
+                })
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheNames.SPACESHIP_SEARCH, key = "{#filter.name, #filter.mode, #pageable}")
     public Page<SpaceshipDTO> getSpaceshipsByFilter(SpaceshipFilter filter, Pageable pageable) {
         try {
-            return repository.findByNameContainingIgnoreCase(filter.getName(), pageable).map(mapper::toDTO);
+            Page<SpaceshipDTO> inMemory = searchInMemory(filter, pageable);
+            return inMemory != null ? inMemory : repository.findViewsByNameLike(filter.likePattern(), pageable).map(mapper::toDTO);
         } catch (Exception e) {
             throw new PaginationException("Error retrieving paginated spaceships", e);
         }
     }
 
+    /**
+     * Searches answered from the name index or the popular search cache already know their exact
+     * total, so only {@code NONE} changes their shape. Otherwise {@code ESTIMATED} has no table
+     * statistics to go on for a {@code like} and uses the cached count, like {@code CACHED}.
+     */
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheNames.SPACESHIP_SEARCH, key = "{#filter.name, #filter.mode, #pageable, #count}")
+    public Slice<SpaceshipDTO> getSpaceshipsByFilter(SpaceshipFilter filter, Pageable pageable, CountStrategy count) {
+        try {
+            Page<SpaceshipDTO> inMemory = searchInMemory(filter, pageable);
+            if (inMemory != null) {
+                return count == CountStrategy.NONE
+                        ? new SliceImpl<>(inMemory.getContent(), pageable, inMemory.hasNext())
+                        : inMemory;
+            }
+            String pattern = filter.likePattern();
+            return switch (count) {
+                case EXACT -> repository.findViewsByNameLike(pattern, pageable).map(mapper::toDTO);
+                case CACHED, ESTIMATED -> withTotal(repository.sliceViewsByNameLike(pattern, pageable).map(mapper::toDTO),
+                        () -> cachedCount(pattern, () -> repository.countByNameLike(pattern)));
+                case NONE -> repository.sliceViewsByNameLike(pattern, pageable).map(mapper::toDTO);
+            };
+        } catch (Exception e) {
+            throw new PaginationException("Error retrieving paginated spaceships", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SpaceshipSlice getSpaceshipsScroll(String cursor, int size, ScrollOrder order) {
+        KeysetCursor position = KeysetCursor.resume(cursor, order);
+        Pageable limit = scrollLimit(size);
+        try {
+            Slice<SpaceshipView> slice;
+            if (position.order() == ScrollOrder.NAME) {
+                slice = position.isFirst()
+                        ? repository.findViewsOrderByNameAndId(limit)
+                        : repository.findViewsAfterNameAndId(position.name(), position.id(), limit);
+            } else {
+                slice = repository.findViewsAfterId(position.id(), limit);
+            }
+            return toSlice(slice.map(mapper::toDTO), position.order());
+        } catch (Exception e) {
+            throw new PaginationException("Error retrieving paginated spaceships", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SpaceshipSlice getSpaceshipsByFilterScroll(SpaceshipFilter filter, String cursor, int size) {
+        KeysetCursor position = cursor == null ? KeysetCursor.first(ScrollOrder.ID) : KeysetCursor.decode(cursor);
+        if (position.order() != ScrollOrder.ID) {
+            throw new InvalidInputException("Filtered scrolling only supports cursors ordered by id");
+        }
+        Pageable limit = scrollLimit(size);
+        try {
+            return toSlice(repository.findViewsByNameLikeAfterId(filter.likePattern(), position.id(), limit).map(mapper::toDTO), ScrollOrder.ID);
+        } catch (Exception e) {
+            throw new PaginationException("Error retrieving paginated spaceships", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = {CacheNames.SPACESHIPS, CacheNames.SPACESHIP_PAGES, CacheNames.SPACESHIP_SEARCH}, allEntries = true)
     public SpaceshipDTO create(SpaceshipDTO dto) {
         if (dto.getName() == null || dto.getName().isEmpty()) {
             throw new InvalidSpaceshipException("Spaceship name cannot be null or empty");
@@ -67,27 +254,299 @@ public class SpaceshipServiceImpl implements SpaceshipService {
                 .name(dto.getName())
                 .build();
         repository.save(entity);
+        publish(SpaceshipChangeType.CREATED, entity);
         return mapper.toDTO(entity);
     }
 
+    /**
+     * Applies the update in its own transaction as a single guarded {@code UPDATE}. When the DTO
+     * carries a version the update is conditional and fails with {@link VersionConflictException}
+     * if the row has moved on; otherwise the current version is read first and a concurrent writer
+     * winning the race only costs a retry against the fresh row. An update taken by the write-behind
+     * buffer comes back without a version; it evicts the cached spaceship instead of replacing it,
+     * and the flush caches the written row.
+     */
     @Override
-    @CachePut(value = "spaceship", key = "#dto.id")
+    @Caching(
+            put = @CachePut(value = CacheNames.SPACESHIP, key = "#dto.id", unless = "#result.version == null"),
+            evict = {
+                    @CacheEvict(value = CacheNames.SPACESHIP, key = "#dto.id", condition = "#result.version == null"),
+                    @CacheEvict(value = {CacheNames.SPACESHIPS, CacheNames.SPACESHIP_PAGES, CacheNames.SPACESHIP_SEARCH}, allEntries = true)})
     public SpaceshipDTO update(SpaceshipDTO dto) throws ResourceNotFoundException {
-        Spaceship entity = repository.findById(dto.getId())
-                .orElseThrow(() -> new ResourceNotFoundException(SPACESHIP_NOT_FOUND + dto.getId()));
-        if (dto.getName() != null) {
-            entity.setName(dto.getName());
+        if (writeBehind.isEnabled()) {
+            if (dto.getVersion() == null) {
+                return writeBehind.update(dto);
+            }
+            if (writeBehind.pending(dto.getId()) != null) {
+                writeBehind.flush();
+            }
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                SpaceshipDTO updated = transactionTemplate.execute(status -> applyUpdate(dto));
+                if (updated == null) {
+                    throw new ResourceNotFoundException(SPACESHIP_NOT_FOUND + dto.getId());
+                }
+                return updated;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (dto.getVersion() != null) {
+                    throw new VersionConflictException("Spaceship " + dto.getId() + " was modified concurrently");
+                }
+                if (attempt >= maxUpdateAttempts) {
+                    throw e;
+                }
+            }
         }
-        repository.save(entity);
-        return mapper.toDTO(entity);
     }
 
     @Override
-    @CacheEvict(value = "spaceship", key = "#id")
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.SPACESHIP, key = "#id"),
+            @CacheEvict(value = {CacheNames.SPACESHIPS, CacheNames.SPACESHIP_PAGES, CacheNames.SPACESHIP_SEARCH}, allEntries = true)})
     public SpaceshipDTO delete(Long id) throws ResourceNotFoundException {
-        Spaceship entity = repository.findById(id)
+        SpaceshipDTO existing = repository.findViewById(id)
+                .map(mapper::toDTO)
                 .orElseThrow(() -> new ResourceNotFoundException(SPACESHIP_NOT_FOUND + id));
-        repository.delete(entity);
-        return mapper.toDTO(entity);
+        if (repository.deleteByIdAndVersion(id, existing.getVersion()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Spaceship.class, id);
+        }
+        writeBehind.discard(id);
+        publish(SpaceshipChangeType.DELETED, existing.getId(), existing.getName(), existing.getVersion());
+        return existing;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<SpaceshipDTO> consumer) {
+        try (Stream<SpaceshipView> spaceships = repository.streamAllViews()) {
+            spaceships.map(mapper::toDTO).forEach(consumer);
+        }
+    }
+
+    @Override
+    public BatchResult createAll(List<SpaceshipDTO> dtos) {
+        return batchWriter.createAll(dtos);
+    }
+
+    /**
+     * Flushes the write-behind buffer first when it holds any of the ids, so that an older buffered
+     * rename cannot overwrite the batch result on the next flush.
+     */
+    @Override
+    public BatchResult updateAll(List<SpaceshipDTO> dtos) {
+        if (writeBehind.isEnabled() && dtos != null
+                && dtos.stream().anyMatch(dto -> dto != null && writeBehind.pending(dto.getId()) != null)) {
+            writeBehind.flush();
+        }
+        return batchWriter.updateAll(dtos);
+    }
+
+    /**
+     * Discards the buffered updates of the rows that were actually deleted.
+     */
+    @Override
+    public BatchResult deleteAll(List<Long> ids) {
+        BatchResult result = batchWriter.deleteAll(ids);
+        result.getItems().stream()
+                .filter(item -> item.getStatus() == BatchItemStatus.DELETED)
+                .forEach(item -> writeBehind.discard(item.getId()));
+        return result;
+    }
+
+    @Override
+    public SpaceshipChangePage getChanges(Long since, int limit) {
+        return changeLog.getChanges(since, limit);
+    }
+
+    private Pageable scrollLimit(int size) {
+        if (size < 1) {
+            throw new InvalidInputException("Page size must be greater than zero");
+        }
+        return PageRequest.of(0, Math.min(size, MAX_SCROLL_SIZE));
+    }
+
+    private SpaceshipSlice toSlice(Slice<SpaceshipDTO> slice, ScrollOrder order) {
+        List<SpaceshipDTO> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            SpaceshipDTO last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(order, last.getId(), last.getName()).encode();
+        }
+        return new SpaceshipSlice(content, content.size(), slice.hasNext(), nextCursor);
+    }
+
+    /**
+     * Returns {@code null} when the search has to go to the database: the in-memory lists are in
+     * relevance or id order, so requests with a {@code sort} are always left to it, as are searches
+     * made before the name index has finished loading.
+     */
+    private Page<SpaceshipDTO> searchInMemory(SpaceshipFilter filter, Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            return null;
+        }
+        if (nameIndex.isReady()) {
+            return searchIndex(filter, pageable);
+        }
+        if (popularSearches.isEnabled() && !nameIndex.isEnabled()) {
+            long[] ids = popularSearches.lookup(filter);
+            if (ids != null) {
+                return page(ids, pageable);
+            }
+        }
+        return null;
+    }
+
+    private Page<SpaceshipDTO> searchIndex(SpaceshipFilter filter, Pageable pageable) {
+        return page(nameIndex.search(filter.getName(), filter.getMode()), pageable);
+    }
+
+    /**
+     * Cuts the requested page from an in-memory id list and hydrates it through the spaceship
+     * cache, so only the ids it is missing are loaded.
+     */
+    private Page<SpaceshipDTO> page(long[] ids, Pageable pageable) {
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), ids.length) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), ids.length) : ids.length;
+        if (from == to) {
+            return new PageImpl<>(List.of(), pageable, ids.length);
+        }
+        List<Long> pageIds = Arrays.stream(ids, from, to).boxed().toList();
+        Map<Long, SpaceshipDTO> spaceships = resolve(pageIds);
+        List<SpaceshipDTO> content = pageIds.stream()
+                .map(spaceships::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, ids.length);
+    }
+
+    /**
+     * Takes what the spaceship cache already holds without triggering a load, fetches the rest
+     * with a single {@code IN} query and back-fills the cache with what it found.
+     */
+    private Map<Long, SpaceshipDTO> resolve(List<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheNames.SPACESHIP);
+        Map<Long, SpaceshipDTO> resolved = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id == null || resolved.containsKey(id) || misses.contains(id)) {
+                continue;
+            }
+            SpaceshipDTO hit = cached(cache, id);
+            if (hit != null) {
+                resolved.put(id, hit);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (SpaceshipDTO spaceship : mapper.toViewDTOList(repository.findViewsByIds(List.copyOf(misses)))) {
+                resolved.put(spaceship.getId(), spaceship);
+                cache.putIfAbsent(spaceship.getId(), spaceship);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Turns a slice into a page. The total is exact when the slice reaches the end; otherwise it
+     * comes from {@code total}, kept consistent with what the slice has shown to exist.
+     */
+    private static Page<SpaceshipDTO> withTotal(Slice<SpaceshipDTO> slice, LongSupplier total) {
+        Pageable pageable = slice.getPageable();
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            return new PageImpl<>(slice.getContent(), pageable, seen);
+        }
+        long approximate = total.getAsLong();
+        return new PageImpl<>(slice.getContent(), pageable,
+                slice.hasNext() ? Math.max(approximate, seen + 1) : Math.min(approximate, offset));
+    }
+
+    private long cachedCount() {
+        return cachedCount(ALL_SPACESHIPS, repository::count);
+    }
+
+    /**
+     * Counts through the {@code spaceshipCounts} cache, which writes do not evict: its entries are
+     * only as fresh as the cache's {@code expireAfterWrite}.
+     */
+    private long cachedCount(String key, LongSupplier count) {
+        Cache cache = cacheManager.getCache(CacheNames.SPACESHIP_COUNTS);
+        if (cache == null) {
+            return count.getAsLong();
+        }
+        Long cached = cache.get(key, count::getAsLong);
+        return cached != null ? cached : count.getAsLong();
+    }
+
+    private long estimatedCount() {
+        Long estimate = repository.estimateCount();
+        return estimate != null ? estimate : cachedCount();
+    }
+
+    private SpaceshipDTO cached(Cache cache, Long id) {
+        SpaceshipDTO pending = writeBehind.pending(id);
+        if (pending != null) {
+            return pending;
+        }
+        Optional<com.github.benmanes.caffeine.cache.Cache<Object, Object>> nativeCache = NativeCaches.caffeine(cache);
+        Object value;
+        if (nativeCache.isPresent()) {
+            value = nativeCache.get().getIfPresent(id);
+        } else {
+            Cache.ValueWrapper wrapper = cache.get(id);
+            value = wrapper == null ? null : wrapper.get();
+        }
+        return value instanceof SpaceshipDTO spaceship ? spaceship : null;
+    }
+
+    /**
+     * Returns {@code null} when the spaceship does not exist. A missing name leaves the row as it
+     * is, so only the version check applies.
+     */
+    private SpaceshipDTO applyUpdate(SpaceshipDTO dto) {
+        Long expected = dto.getVersion();
+        SpaceshipDTO current = null;
+        if (expected == null || dto.getName() == null) {
+            current = repository.findViewById(dto.getId()).map(mapper::toDTO).orElse(null);
+            if (current == null) {
+                return null;
+            }
+            checkVersion(current, expected);
+            if (dto.getName() == null) {
+                return current;
+            }
+            expected = current.getVersion();
+        }
+        if (repository.updateName(dto.getId(), dto.getName(), expected) == 0) {
+            if (current == null) {
+                current = repository.findViewById(dto.getId()).map(mapper::toDTO).orElse(null);
+                if (current == null) {
+                    return null;
+                }
+                checkVersion(current, expected);
+            }
+            throw new ObjectOptimisticLockingFailureException(Spaceship.class, dto.getId());
+        }
+        SpaceshipDTO updated = new SpaceshipDTO(dto.getId(), dto.getName(), expected + 1);
+        publish(SpaceshipChangeType.UPDATED, updated.getId(), updated.getName(), updated.getVersion());
+        return updated;
+    }
+
+    private static void checkVersion(SpaceshipDTO current, Long expected) {
+        if (expected != null && !expected.equals(current.getVersion())) {
+            throw new VersionConflictException("Spaceship " + current.getId() + " is at version " + current.getVersion()
+                    + ", not " + expected);
+        }
+    }
+
+    private void publish(SpaceshipChangeType type, Spaceship entity) {
+        publish(type, entity.getId(), entity.getName(), entity.getVersion());
+    }
+
+    private void publish(SpaceshipChangeType type, Long id, String name, Long version) {
+        eventPublisher.publishEvent(new SpaceshipChangedEvent(type, id, name, version));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,364 @@
+package com.martinseijo.spaceship.application.service;
+
+import com.martinseijo.spaceship.application.dto.BatchItemResult;
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.exception.ServiceOverloadedException;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in write-behind buffer for {@code update}. Pending updates are kept per id in lock-striped
+ * maps, so repeated renames of the same spaceship collapse into one row, and are written through
+ * {@link SpaceshipBatchWriter} every {@code flush-interval} or as soon as {@code flush-size} ids are
+ * pending. Each pending id holds a permit until it is written; when {@code max-pending} permits are
+ * taken, callers wait up to {@code offer-timeout} and are then rejected with a 503. Failed rows are
+ * retried up to {@code max-attempts} times, and the buffer is drained before the context closes.
+ * A drained update stays visible through {@link #pending(Long)} as in flight until its write has
+ * committed or it is requeued, so readers never fall back to the old row in between. Conditional
+ * updates, those carrying a version, bypass the buffer.
+ */
+@Component
+@Slf4j
+public class SpaceshipWriteBehindBuffer {
+
+    private static final String SPACESHIP_NOT_FOUND = "Spaceship not found with id ";
+
+    private final SpaceshipRepository repository;
+    private final SpaceshipMapper mapper;
+    private final SpaceshipBatchWriter batchWriter;
+    private final boolean enabled;
+    private final int flushSize;
+    private final Duration offerTimeout;
+    private final int maxAttempts;
+    private final Stripe[] stripes;
+    private final Semaphore capacity;
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService flusher;
+    private volatile boolean accepting = true;
+
+    public SpaceshipWriteBehindBuffer(SpaceshipRepository repository,
+                                      SpaceshipMapper mapper,
+                                      SpaceshipBatchWriter batchWriter,
+                                      @Value("${spaceship.write-behind.enabled:false}") boolean enabled,
+                                      @Value("${spaceship.write-behind.stripes:16}") int stripes,
+                                      @Value("${spaceship.write-behind.max-pending:10000}") int maxPending,
+                                      @Value("${spaceship.write-behind.flush-size:500}") int flushSize,
+                                      @Value("${spaceship.write-behind.offer-timeout:PT1S}") Duration offerTimeout,
+                                      @Value("${spaceship.write-behind.max-attempts:3}") int maxAttempts) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.batchWriter = batchWriter;
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+        this.offerTimeout = offerTimeout;
+        this.maxAttempts = maxAttempts;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.capacity = new Semaphore(maxPending);
+        this.flusher = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("spaceship-write-behind").daemon().factory());
+    }
+
+    public boolean isEnabled() {
+        return enabled && accepting;
+    }
+
+    /**
+     * Returns the not yet committed state of the spaceship, buffered or in flight, or {@code null}
+     * when nothing is pending.
+     */
+    public SpaceshipDTO pending(Long id) {
+        if (!enabled || id == null) {
+            return null;
+        }
+        Stripe stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            PendingUpdate update = stripe.entries.get(id);
+            if (update == null) {
+                update = stripe.inFlight.get(id);
+            }
+            return update == null ? null : copy(update.spaceship);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Buffers the update and returns the resulting state. Only the first update of an id within a
+     * flush window reads the database, to check that the spaceship exists.
+     */
+    public SpaceshipDTO update(SpaceshipDTO dto) throws ResourceNotFoundException {
+        Long id = dto.getId();
+        Stripe stripe = stripe(id);
+        SpaceshipDTO merged = mergeIfPending(stripe, dto);
+        if (merged != null) {
+            return merged;
+        }
+        SpaceshipDTO current = repository.findViewById(id)
+                .map(mapper::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException(SPACESHIP_NOT_FOUND + id));
+        if (dto.getName() == null) {
+            SpaceshipDTO inFlight = pending(id);
+            return inFlight != null ? inFlight : current;
+        }
+        acquire();
+        stripe.lock.lock();
+        try {
+            PendingUpdate existing = stripe.entries.get(id);
+            if (existing != null) {
+                capacity.release();
+                apply(existing.spaceship, dto);
+                return copy(existing.spaceship);
+            }
+            apply(current, dto);
+            // Buffered rows are written unconditionally: the version they were read at is stale
+            // as soon as a second update of the same id is merged into them.
+            current.setVersion(null);
+            stripe.entries.put(id, new PendingUpdate(current));
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (pendingCount.incrementAndGet() >= flushSize) {
+            requestFlush();
+        }
+        return copy(current);
+    }
+
+    /**
+     * Drops any pending update of a spaceship that has been deleted. An update already in flight
+     * still releases its permit when its write completes, but is no longer retried.
+     */
+    public void discard(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        Stripe stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            stripe.inFlight.remove(id);
+            if (stripe.entries.remove(id) == null) {
+                return;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        pendingCount.decrementAndGet();
+        capacity.release();
+    }
+
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${spaceship.write-behind.flush-interval:PT0.2S}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<PendingUpdate> drained;
+            do {
+                drained = drain(flushSize);
+                if (!drained.isEmpty()) {
+                    write(drained);
+                }
+            } while (drained.size() == flushSize);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        if (!enabled) {
+            return;
+        }
+        accepting = false;
+        flusher.shutdown();
+        for (int attempt = 0; attempt <= maxAttempts && pendingCount.get() > 0; attempt++) {
+            flush();
+        }
+        if (pendingCount.get() > 0) {
+            log.error("{} spaceship updates could not be written before shutdown", pendingCount.get());
+        } else {
+            log.info("Write-behind buffer drained");
+        }
+    }
+
+    private SpaceshipDTO mergeIfPending(Stripe stripe, SpaceshipDTO dto) {
+        stripe.lock.lock();
+        try {
+            PendingUpdate existing = stripe.entries.get(dto.getId());
+            if (existing == null) {
+                return null;
+            }
+            apply(existing.spaceship, dto);
+            return copy(existing.spaceship);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private List<PendingUpdate> drain(int limit) {
+        List<PendingUpdate> drained = new ArrayList<>(Math.min(limit, pendingCount.get()));
+        for (Stripe stripe : stripes) {
+            if (drained.size() == limit) {
+                break;
+            }
+            stripe.lock.lock();
+            try {
+                Iterator<PendingUpdate> iterator = stripe.entries.values().iterator();
+                while (iterator.hasNext() && drained.size() < limit) {
+                    PendingUpdate update = iterator.next();
+                    iterator.remove();
+                    stripe.inFlight.put(update.spaceship.getId(), update);
+                    drained.add(update);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        pendingCount.addAndGet(-drained.size());
+        return drained;
+    }
+
+    private void write(List<PendingUpdate> drained) {
+        List<SpaceshipDTO> rows = drained.stream().map(update -> update.spaceship).toList();
+        BatchResult result;
+        try {
+            result = batchWriter.updateAll(rows);
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush of {} updates failed: {}", rows.size(), e.getMessage());
+            drained.forEach(update -> requeue(update, e.getMessage()));
+            return;
+        }
+        int released = 0;
+        for (BatchItemResult item : result.getItems()) {
+            if (item.isFailed()) {
+                requeue(drained.get(item.getIndex()), item.getError());
+            } else {
+                written(drained.get(item.getIndex()));
+                released++;
+            }
+        }
+        capacity.release(released);
+        log.debug("Write-behind flushed {} of {} updates", released, rows.size());
+    }
+
+    private void written(PendingUpdate update) {
+        Long id = update.spaceship.getId();
+        Stripe stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            stripe.inFlight.remove(id, update);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void requeue(PendingUpdate update, String error) {
+        Long id = update.spaceship.getId();
+        Stripe stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            if (!stripe.inFlight.remove(id, update)) {
+                // Discarded while in flight: the spaceship is gone, so there is nothing to retry.
+                capacity.release();
+                return;
+            }
+            if (update.attempts + 1 < maxAttempts && !stripe.entries.containsKey(id)) {
+                update.attempts++;
+                stripe.entries.put(id, update);
+                pendingCount.incrementAndGet();
+                return;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        capacity.release();
+        log.error("Dropping buffered update of spaceship {}: {}", id, error);
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushRequested.set(false);
+                    flush();
+                });
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!capacity.tryAcquire(offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceOverloadedException("Too many pending spaceship updates, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting to buffer a spaceship update");
+        }
+    }
+
+    private Stripe stripe(Long id) {
+        return stripes[Long.hashCode(id * 0x9E3779B97F4A7C15L) & (stripes.length - 1)];
+    }
+
+    private static void apply(SpaceshipDTO target, SpaceshipDTO changes) {
+        if (changes.getName() != null) {
+            target.setName(changes.getName());
+        }
+    }
+
+    private static SpaceshipDTO copy(SpaceshipDTO source) {
+        SpaceshipDTO copy = new SpaceshipDTO();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        return copy;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, PendingUpdate> entries = new LinkedHashMap<>();
+        private final Map<Long, PendingUpdate> inFlight = new HashMap<>();
+    }
+
+    private static final class PendingUpdate {
+        private final SpaceshipDTO spaceship;
+        private int attempts;
+
+        private PendingUpdate(SpaceshipDTO spaceship) {
+            this.spaceship = spaceship;
+        }
+    }
+}
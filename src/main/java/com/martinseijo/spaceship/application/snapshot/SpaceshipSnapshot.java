@@ -0,0 +1,377 @@
+package com.martinseijo.spaceship.application.snapshot;
+
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.application.cache.NativeCaches;
+import com.martinseijo.spaceship.application.dto.SearchMode;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.readmodel.SpaceshipReadModel;
+import com.martinseijo.spaceship.application.search.PopularSearchCache;
+import com.martinseijo.spaceship.application.search.PopularSearchCache.PopularQuery;
+import com.martinseijo.spaceship.application.search.SpaceshipNameIndex;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Periodically writes the catalogue, the hottest {@code spaceship} cache keys and the popular
+ * searches to a binary file and, on the next start, memory-maps it to warm the cache, the name
+ * index, the popular search lists and the read model before the application reports ready.
+ *
+ * <p>Layout (big-endian): magic, format version, creation time, hot key count and hot ids; popular
+ * search count and one {@code (mode, name length, UTF-8 name, count)} entry per search; then one
+ * {@code (id, version, name length, UTF-8 name)} record per spaceship in id order, terminated by id 0; then
+ * the row count, the highest id, the sum of every row's version and a CRC32 of everything before
+ * it. The file is written by streaming the table into a temporary file that atomically replaces
+ * the previous snapshot. A snapshot is only restored when its checksum matches, it is younger than
+ * {@code spaceship.snapshot.max-age} and its row count, highest id and version sum still match the
+ * database. Every write bumps a row's version, so an update made after the snapshot, by this
+ * instance before a crash or by another one, changes the sum even when count and highest id stay
+ * the same.
+ */
+@Component
+@Slf4j
+public class SpaceshipSnapshot {
+
+    static final int MAGIC = 0x53504353;
+    static final short FORMAT_VERSION = 4;
+    private static final long END_OF_RECORDS = 0L;
+    private static final int FOOTER_BYTES = Integer.BYTES + Long.BYTES + Long.BYTES + Long.BYTES;
+
+    private final SpaceshipRepository repository;
+    private final EntityManager entityManager;
+    private final SpaceshipNameIndex nameIndex;
+    private final PopularSearchCache popularSearches;
+    private final SpaceshipReadModel readModel;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration maxAge;
+    private final int hotKeys;
+    private final AtomicLong changes = new AtomicLong();
+    private long changesAtLastSnapshot = -1;
+
+    public SpaceshipSnapshot(SpaceshipRepository repository,
+                             EntityManager entityManager,
+                             SpaceshipNameIndex nameIndex,
+                             PopularSearchCache popularSearches,
+                             SpaceshipReadModel readModel,
+                             CacheManager cacheManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${spaceship.snapshot.enabled:false}") boolean enabled,
+                             @Value("${spaceship.snapshot.path:data/spaceship.snapshot}") Path path,
+                             @Value("${spaceship.snapshot.max-age:PT24H}") Duration maxAge,
+                             @Value("${spaceship.snapshot.hot-keys:1000}") int hotKeys) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.nameIndex = nameIndex;
+        this.popularSearches = popularSearches;
+        this.readModel = readModel;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.clock = Clock.systemUTC();
+        this.enabled = enabled;
+        this.path = path;
+        this.maxAge = maxAge;
+        this.hotKeys = hotKeys;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceshipChanged(SpaceshipChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${spaceship.snapshot.interval:PT5M}", initialDelayString = "${spaceship.snapshot.interval:PT5M}")
+    public void scheduledWrite() {
+        if (enabled && changes.get() != changesAtLastSnapshot) {
+            write();
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        if (enabled) {
+            write();
+        }
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            restore();
+        }
+    }
+
+    /**
+     * Writes a new snapshot, replacing the previous one only once the new file is complete.
+     */
+    public synchronized void write() {
+        long changesBefore = changes.get();
+        long[] hotIds = hotIds();
+        List<PopularQuery> popular = popularSearches.hottest();
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                int rows;
+                try (OutputStream file = Files.newOutputStream(temporary)) {
+                    rows = writeTo(file, hotIds, popular);
+                }
+                moveIntoPlace(temporary);
+                changesAtLastSnapshot = changesBefore;
+                log.info("Spaceship snapshot written to {} with {} rows and {} hot keys", path, rows, hotIds.length);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write spaceship snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Warms the cache, the name index, the popular searches and the read model from the snapshot
+     * file.
+     *
+     * @return whether the snapshot was valid and fresh enough to be used
+     */
+    public boolean restore() {
+        if (!Files.isReadable(path)) {
+            log.info("No spaceship snapshot at {}, starting cold", path);
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            String problem = validate(snapshot);
+            if (problem != null) {
+                log.info("Ignoring spaceship snapshot at {}: {}", path, problem);
+                return false;
+            }
+            List<PopularQuery> popular = readPopular(snapshot);
+            int recordsStart = snapshot.position();
+            nameIndex.restore(records(snapshot, recordsStart));
+            popularSearches.restore(popular, records(snapshot, recordsStart));
+            readModel.restore(records(snapshot, recordsStart));
+            warmCache(snapshot, recordsStart);
+            log.info("Spaceship snapshot restored from {}", path);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore spaceship snapshot from {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private int writeTo(OutputStream file, long[] hotIds, List<PopularQuery> popular) throws IOException {
+        CRC32 crc = new CRC32();
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file, 64 * 1024), crc));
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        out.writeLong(clock.millis());
+        out.writeInt(hotIds.length);
+        for (long id : hotIds) {
+            out.writeLong(id);
+        }
+        out.writeInt(popular.size());
+        for (PopularQuery query : popular) {
+            byte[] name = query.name().getBytes(StandardCharsets.UTF_8);
+            out.writeByte(query.mode().ordinal());
+            out.writeInt(name.length);
+            out.write(name);
+            out.writeLong(query.count());
+        }
+        long[] totals = new long[3];
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Spaceship> spaceships = repository.streamAll()) {
+                Iterator<Spaceship> iterator = spaceships.iterator();
+                while (iterator.hasNext()) {
+                    Spaceship spaceship = iterator.next();
+                    byte[] name = spaceship.getName().getBytes(StandardCharsets.UTF_8);
+                    out.writeLong(spaceship.getId());
+                    out.writeLong(spaceship.getVersion());
+                    out.writeShort(name.length);
+                    out.write(name);
+                    totals[0]++;
+                    totals[1] = Math.max(totals[1], spaceship.getId());
+                    totals[2] += spaceship.getVersion();
+                    entityManager.detach(spaceship);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        out.writeLong(END_OF_RECORDS);
+        out.writeInt((int) totals[0]);
+        out.writeLong(totals[1]);
+        out.writeLong(totals[2]);
+        out.writeLong(crc.getValue());
+        out.flush();
+        return (int) totals[0];
+    }
+
+    private void moveIntoPlace(Path temporary) throws IOException {
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Checks the snapshot and leaves the buffer positioned at the popular searches.
+     *
+     * @return why the snapshot cannot be used, or {@code null} when it can
+     */
+    private String validate(ByteBuffer snapshot) {
+        int length = snapshot.limit();
+        if (length < Integer.BYTES + Short.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES + FOOTER_BYTES) {
+            return "file is truncated";
+        }
+        CRC32 crc = new CRC32();
+        crc.update(snapshot.duplicate().limit(length - Long.BYTES));
+        if (crc.getValue() != snapshot.getLong(length - Long.BYTES)) {
+            return "checksum mismatch";
+        }
+        if (snapshot.getInt() != MAGIC) {
+            return "not a spaceship snapshot";
+        }
+        short version = snapshot.getShort();
+        if (version != FORMAT_VERSION) {
+            return "unsupported format version " + version;
+        }
+        Instant createdAt = Instant.ofEpochMilli(snapshot.getLong());
+        if (createdAt.plus(maxAge).isBefore(clock.instant())) {
+            return "older than " + maxAge;
+        }
+        int rows = snapshot.getInt(length - FOOTER_BYTES);
+        long maxId = snapshot.getLong(length - FOOTER_BYTES + Integer.BYTES);
+        long versionSum = snapshot.getLong(length - FOOTER_BYTES + Integer.BYTES + Long.BYTES);
+        Long databaseMaxId = repository.findMaxId();
+        if (rows != repository.count() || maxId != (databaseMaxId == null ? 0L : databaseMaxId)
+                || versionSum != repository.sumVersions()) {
+            return "database has changed since it was written";
+        }
+        int hotKeyCount = snapshot.getInt();
+        snapshot.position(snapshot.position() + hotKeyCount * Long.BYTES);
+        return null;
+    }
+
+    /**
+     * Reads the popular searches and leaves the buffer positioned at the first record.
+     */
+    private static List<PopularQuery> readPopular(ByteBuffer snapshot) {
+        int count = snapshot.getInt();
+        List<PopularQuery> popular = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SearchMode mode = SearchMode.values()[snapshot.get()];
+            byte[] name = new byte[snapshot.getInt()];
+            snapshot.get(name);
+            popular.add(new PopularQuery(new String(name, StandardCharsets.UTF_8), mode, snapshot.getLong()));
+        }
+        return popular;
+    }
+
+    private void warmCache(ByteBuffer snapshot, int recordsStart) {
+        Cache cache = cacheManager.getCache(CacheNames.SPACESHIP);
+        if (cache == null) {
+            return;
+        }
+        int hotKeysStart = Integer.BYTES + Short.BYTES + Long.BYTES;
+        int hotKeyCount = snapshot.getInt(hotKeysStart);
+        Set<Long> hot = new HashSet<>(hotKeyCount * 2);
+        for (int i = 0; i < hotKeyCount; i++) {
+            hot.add(snapshot.getLong(hotKeysStart + Integer.BYTES + i * Long.BYTES));
+        }
+        try (Stream<SpaceshipDTO> spaceships = records(snapshot, recordsStart)) {
+            spaceships.filter(spaceship -> hot.contains(spaceship.getId()))
+                    .forEach(spaceship -> cache.put(spaceship.getId(), spaceship));
+        }
+    }
+
+    private long[] hotIds() {
+        Cache cache = cacheManager.getCache(CacheNames.SPACESHIP);
+        if (cache == null) {
+            return new long[0];
+        }
+        return NativeCaches.caffeine(cache)
+                .flatMap(nativeCache -> nativeCache.policy().eviction())
+                .map(eviction -> eviction.hottest(hotKeys).keySet().stream()
+                        .filter(Long.class::isInstance)
+                        .mapToLong(Long.class::cast)
+                        .toArray())
+                .orElseGet(() -> new long[0]);
+    }
+
+    private static Stream<SpaceshipDTO> records(ByteBuffer snapshot, int recordsStart) {
+        ByteBuffer buffer = snapshot.duplicate().position(recordsStart);
+        Iterator<SpaceshipDTO> iterator = new Iterator<>() {
+            private long nextId = buffer.getLong();
+
+            @Override
+            public boolean hasNext() {
+                return nextId != END_OF_RECORDS;
+            }
+
+            @Override
+            public SpaceshipDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                long version = buffer.getLong();
+                byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(name);
+                SpaceshipDTO spaceship = new SpaceshipDTO();
+                spaceship.setId(nextId);
+                spaceship.setVersion(version);
+                spaceship.setName(new String(name, StandardCharsets.UTF_8));
+                nextId = buffer.getLong();
+                return spaceship;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
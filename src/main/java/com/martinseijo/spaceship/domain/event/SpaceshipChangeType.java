@@ -0,0 +1,7 @@
+package com.martinseijo.spaceship.domain.event;
+
+public enum SpaceshipChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,8 @@
+package com.martinseijo.spaceship.domain.event;
+
+public record SpaceshipChangedEvent(SpaceshipChangeType type, Long id, String name, Long version) {
+
+    public SpaceshipChangedEvent(SpaceshipChangeType type, Long id, String name) {
+        this(type, id, name, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.martinseijo.spaceship.domain.exception;
+
+public class ChangeFeedExpiredException extends RuntimeException {
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.martinseijo.spaceship.domain.exception;
+
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
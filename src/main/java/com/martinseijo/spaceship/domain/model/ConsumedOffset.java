@@ -0,0 +1,20 @@
+package com.martinseijo.spaceship.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "consumed_offset")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumedOffset {
+
+    @Id
+    @Column(name = "topic_partition")
+    private String topicPartition;
+
+    @Column(name = "next_offset", nullable = false)
+    private Long nextOffset;
+}
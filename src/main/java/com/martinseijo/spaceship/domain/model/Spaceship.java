@@ -13,9 +13,18 @@ import lombok.*;
 public class Spaceship {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spaceship_seq")
+    @SequenceGenerator(name = "spaceship_seq", sequenceName = "spaceship_seq", initialValue = 100, allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String name;
+
+    @Version
+    private Long version;
+
+    public Spaceship(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
 }
@@ -0,0 +1,34 @@
+package com.martinseijo.spaceship.domain.model;
+
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "spaceship_change")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpaceshipChange {
+
+    @Id
+    private Long seq;
+
+    @Column(name = "spaceship_id", nullable = false)
+    private Long spaceshipId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private SpaceshipChangeType type;
+
+    private String name;
+
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
@@ -0,0 +1,8 @@
+package com.martinseijo.spaceship.domain.model;
+
+/**
+ * Read-only projection of a {@link Spaceship} row, selected with a constructor expression so reads
+ * never load the entity into the persistence context.
+ */
+public record SpaceshipView(Long id, String name, Long version) {
+}
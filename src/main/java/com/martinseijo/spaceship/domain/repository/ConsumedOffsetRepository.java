@@ -0,0 +1,21 @@
+package com.martinseijo.spaceship.domain.repository;
+
+import com.martinseijo.spaceship.domain.model.ConsumedOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ConsumedOffsetRepository extends JpaRepository<ConsumedOffset, String> {
+
+    /**
+     * Locks the offsets of the given partitions until the calling transaction completes, so two
+     * consumers briefly sharing a partition during a rebalance apply its records only once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ConsumedOffset> findByTopicPartitionIn(Collection<String> topicPartitions);
+}
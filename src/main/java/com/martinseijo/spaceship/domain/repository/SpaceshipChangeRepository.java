@@ -0,0 +1,43 @@
+package com.martinseijo.spaceship.domain.repository;
+
+import com.martinseijo.spaceship.domain.model.SpaceshipChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface SpaceshipChangeRepository extends JpaRepository<SpaceshipChange, Long> {
+
+    List<SpaceshipChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+
+    /**
+     * Claims the next sequence number. The row lock taken here is held until the calling
+     * transaction completes, which serializes appends in sequence order.
+     */
+    @Modifying
+    @Query(value = "UPDATE spaceship_change_head SET seq = seq + 1", nativeQuery = true)
+    int advanceHead();
+
+    @Query(value = "SELECT seq FROM spaceship_change_head", nativeQuery = true)
+    long findHead();
+
+    @Query(value = "SELECT pruned_through FROM spaceship_change_head", nativeQuery = true)
+    long findPrunedThrough();
+
+    @Query("select max(c.seq) from SpaceshipChange c where c.changedAt < :cutoff")
+    Long findLastSeqBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("delete from SpaceshipChange c where c.seq <= :seq")
+    int deleteThrough(@Param("seq") Long seq);
+
+    @Modifying
+    @Query(value = "UPDATE spaceship_change_head SET pruned_through = :seq", nativeQuery = true)
+    int updatePrunedThrough(@Param("seq") long seq);
+}
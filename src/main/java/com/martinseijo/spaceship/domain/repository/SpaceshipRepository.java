@@ -1,13 +1,145 @@
 package com.martinseijo.spaceship.domain.repository;
 
 import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.model.SpaceshipView;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * The {@code Views} queries project straight into {@link SpaceshipView}, so reads never put an
+ * entity in the persistence context, and run with {@code MANUAL} flush so they never trigger a
+ * dirty check either. Entities are only loaded by the paths that write them in bulk.
+ */
 @Repository
 public interface SpaceshipRepository extends JpaRepository<Spaceship, Long> {
 
-    Page<Spaceship> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    String STREAM_FETCH_SIZE = "500";
+
+    String SELECT_VIEW = "select new com.martinseijo.spaceship.domain.model.SpaceshipView(s.id, s.name, s.version) from Spaceship s";
+
+    String COUNT = "select count(s) from Spaceship s";
+
+    String NAME_LIKE = " where lower(s.name) like :pattern escape '!'";
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(SELECT_VIEW + " order by s.id")
+    List<SpaceshipView> findAllViews();
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(value = SELECT_VIEW, countQuery = COUNT)
+    Page<SpaceshipView> findAllViews(Pageable pageable);
+
+    /**
+     * Fetches one row more than the page instead of running the count query.
+     */
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(SELECT_VIEW)
+    Slice<SpaceshipView> sliceAllViews(Pageable pageable);
+
+    /**
+     * H2's own estimate of the rows in the spaceship table, kept in its table statistics, or
+     * {@code null} if the database does not report one.
+     */
+    @Query(value = "select row_count_estimate from information_schema.tables"
+            + " where table_schema = current_schema and table_name = 'SPACESHIP'", nativeQuery = true)
+    Long estimateCount();
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(SELECT_VIEW + " where s.id = :id")
+    Optional<SpaceshipView> findViewById(@Param("id") Long id);
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(SELECT_VIEW + " where s.id in :ids")
+    List<SpaceshipView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * {@code pattern} is a lower-cased {@code LIKE} pattern escaped with {@code !}, as built by
+     * {@code SpaceshipFilter.likePattern()}.
+     */
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(value = SELECT_VIEW + NAME_LIKE, countQuery = COUNT + NAME_LIKE)
+    Page<SpaceshipView> findViewsByNameLike(@Param("pattern") String pattern, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(SELECT_VIEW + NAME_LIKE)
+    Slice<SpaceshipView> sliceViewsByNameLike(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(COUNT + NAME_LIKE)
+    long countByNameLike(@Param("pattern") String pattern);
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query("select s.id from Spaceship s" + NAME_LIKE + " order by s.id")
+    List<Long> findIdsByNameLike(@Param("pattern") String pattern, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(SELECT_VIEW + " where s.id > :id order by s.id")
+    Slice<SpaceshipView> findViewsAfterId(@Param("id") Long id, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(SELECT_VIEW + " order by s.name, s.id")
+    Slice<SpaceshipView> findViewsOrderByNameAndId(Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(SELECT_VIEW + " where s.name > :name or (s.name = :name and s.id > :id) order by s.name, s.id")
+    Slice<SpaceshipView> findViewsAfterNameAndId(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(SELECT_VIEW + NAME_LIKE + " and s.id > :id order by s.id")
+    Slice<SpaceshipView> findViewsByNameLikeAfterId(@Param("pattern") String pattern, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_VIEW + " order by s.id")
+    Stream<SpaceshipView> streamAllViews();
+
+    /**
+     * Renames the spaceship and bumps its version in one statement, only if it is still at
+     * {@code version}. Returns the number of rows changed, so {@code 0} means missing or stale.
+     */
+    @Modifying
+    @Query("update Spaceship s set s.name = :name, s.version = s.version + 1 where s.id = :id and s.version = :version")
+    int updateName(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
+    @Modifying
+    @Query("delete from Spaceship s where s.id = :id and s.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+
+    @Query("select s.name from Spaceship s where s.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Query("select max(s.id) from Spaceship s")
+    Long findMaxId();
+
+    @Query("select coalesce(sum(s.version), 0) from Spaceship s")
+    long sumVersions();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select s from Spaceship s order by s.id")
+    Stream<Spaceship> streamAll();
 }
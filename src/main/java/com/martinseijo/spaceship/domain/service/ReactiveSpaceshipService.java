@@ -0,0 +1,19 @@
+package com.martinseijo.spaceship.domain.service;
+
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.dto.SpaceshipSlice;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveSpaceshipService {
+    Flux<SpaceshipDTO> getAllSpaceships();
+    Mono<SpaceshipDTO> getById(Long id);
+    Flux<SpaceshipDTO> getSpaceshipsByFilter(SpaceshipFilter filter, Pageable pageable);
+    Mono<SpaceshipSlice> getSpaceshipsScroll(String cursor, int size, ScrollOrder order);
+    Mono<SpaceshipDTO> create(SpaceshipDTO spaceshipDTO);
+    Mono<SpaceshipDTO> update(SpaceshipDTO spaceshipDTO);
+    Mono<SpaceshipDTO> delete(Long id);
+}
@@ -1,19 +1,37 @@
 package com.martinseijo.spaceship.domain.service;
 
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.CountStrategy;
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
+import com.martinseijo.spaceship.application.dto.SpaceshipChangePage;
 import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
 import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.dto.SpaceshipLookup;
+import com.martinseijo.spaceship.application.dto.SpaceshipSlice;
 import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface SpaceshipService {
     List<SpaceshipDTO> getAllSpaceships();
     SpaceshipDTO getById(Long id) throws ResourceNotFoundException;
+    List<SpaceshipLookup> getByIds(List<Long> ids);
     Page<SpaceshipDTO> getAllSpaceshipsPaginated(Pageable pageable);
+    Slice<SpaceshipDTO> getAllSpaceshipsPaginated(Pageable pageable, CountStrategy count);
     Page<SpaceshipDTO> getSpaceshipsByFilter(SpaceshipFilter filter, Pageable pageable);
+    Slice<SpaceshipDTO> getSpaceshipsByFilter(SpaceshipFilter filter, Pageable pageable, CountStrategy count);
+    SpaceshipSlice getSpaceshipsScroll(String cursor, int size, ScrollOrder order);
+    SpaceshipSlice getSpaceshipsByFilterScroll(SpaceshipFilter filter, String cursor, int size);
     SpaceshipDTO create(SpaceshipDTO spaceshipDTO);
     SpaceshipDTO update(SpaceshipDTO spaceshipDTO) throws ResourceNotFoundException;
     SpaceshipDTO delete(Long id) throws ResourceNotFoundException;
+    void exportAll(Consumer<SpaceshipDTO> consumer);
+    BatchResult createAll(List<SpaceshipDTO> spaceshipDTOs);
+    BatchResult updateAll(List<SpaceshipDTO> spaceshipDTOs);
+    BatchResult deleteAll(List<Long> ids);
+    SpaceshipChangePage getChanges(Long since, int limit);
 }
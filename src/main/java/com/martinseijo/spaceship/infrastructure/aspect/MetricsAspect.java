@@ -0,0 +1,91 @@
+package com.martinseijo.spaceship.infrastructure.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every controller endpoint, service method and repository call into the
+ * {@code spaceship.method} timer, tagged by layer, method and outcome. Percentiles and histogram
+ * buckets are configured through {@code management.metrics.distribution.*}. Timers are resolved
+ * once per method and cached, so the per-call cost is two {@code nanoTime} reads and a record.
+ * Repository time is the database share of a request; the gap between the controller timer and
+ * {@code http.server.requests} is serialization and the servlet stack.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spaceship.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsAspect {
+
+    private static final String TIMER_NAME = "spaceship.method";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    @Pointcut("execution(public * com.martinseijo.spaceship.infrastructure.web.impl.SpaceshipControllerImpl.*(..))")
+    public void controllerMethod() {}
+
+    @Pointcut("execution(public * com.martinseijo.spaceship.application.service.SpaceshipServiceImpl.*(..))")
+    public void serviceMethod() {}
+
+    @Pointcut("target(com.martinseijo.spaceship.domain.repository.SpaceshipRepository)")
+    public void repositoryMethod() {}
+
+    @Around("controllerMethod()")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "controller");
+    }
+
+    @Around("serviceMethod()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service");
+    }
+
+    @Around("repositoryMethod()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "repository");
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers methodTimers = timers.computeIfAbsent(method, key -> register(layer, key));
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodTimers.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers.error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private MethodTimers register(String layer, Method method) {
+        return new MethodTimers(timer(layer, method, "success"), timer(layer, method, "error"));
+    }
+
+    private Timer timer(String layer, Method method, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Latency of spaceship controller, service and repository methods")
+                .tag("layer", layer)
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record MethodTimers(Timer success, Timer error) {
+    }
+}
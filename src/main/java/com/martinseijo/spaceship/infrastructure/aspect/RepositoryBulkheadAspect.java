@@ -0,0 +1,90 @@
+package com.martinseijo.spaceship.infrastructure.aspect;
+
+import com.martinseijo.spaceship.domain.exception.ServiceOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of threads holding a database connection at the size of the connection pool, so
+ * that an unbounded number of virtual threads queue here instead of inside Hikari. A permit is
+ * always taken before the connection: around {@code @Transactional} methods, and around the batch
+ * writer and {@code SpaceshipServiceImpl.update}, which open theirs through a
+ * {@code TransactionTemplate} on the request path. It is ordered just outside the transaction
+ * interceptor (caching stays outside both), and also taken around
+ * {@code SpaceshipRepository} calls made outside any transaction, which open their own. The permit
+ * is kept until that outermost call returns, after the commit, which also makes nested calls
+ * reentrant. A repository call inside a transaction that started without a permit, such as the
+ * {@code TransactionTemplate} of a scheduled job or the Kafka consumer, already holds its
+ * connection and never waits here, so a thread can never hold a connection while waiting for a
+ * permit.
+ */
+@Aspect
+@Component
+@Slf4j
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "spaceship.bulkhead.enabled", havingValue = "true")
+public class RepositoryBulkheadAspect {
+
+    private final ThreadLocal<Boolean> holdsPermit = new ThreadLocal<>();
+    private final Semaphore permits;
+    private final Duration timeout;
+
+    public RepositoryBulkheadAspect(@Value("${spaceship.bulkhead.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+                                    @Value("${spaceship.bulkhead.timeout:5s}") Duration timeout) {
+        this.permits = new Semaphore(permits, true);
+        this.timeout = timeout;
+        log.info("Repository bulkhead enabled with {} permits", permits);
+    }
+
+    @Pointcut("within(com.martinseijo.spaceship..*) && (@annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || @within(org.springframework.transaction.annotation.Transactional)"
+            + " || execution(public * com.martinseijo.spaceship.application.service.SpaceshipBatchWriter.*(..))"
+            + " || execution(public * com.martinseijo.spaceship.application.service.SpaceshipServiceImpl.update(..)))")
+    public void transactionBoundary() {}
+
+    @Pointcut("target(com.martinseijo.spaceship.domain.repository.SpaceshipRepository)")
+    public void repositoryMethod() {}
+
+    @Around("transactionBoundary() || repositoryMethod()")
+    public Object limitConcurrency(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (holdsPermit.get() != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        acquire();
+        holdsPermit.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            holdsPermit.remove();
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceOverloadedException("Too many concurrent database requests, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for a database permit");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.application.cache.SpaceshipCacheLoader;
+import com.martinseijo.spaceship.infrastructure.web.CachedResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+
+@Configuration
+@EnableConfigurationProperties(SpaceshipCacheProperties.class)
+public class CacheConfig {
+
+    private static final String MAXIMUM_WEIGHT = "maximumWeight";
+    private static final String REFRESH_AFTER_WRITE = "refreshAfterWrite";
+
+    @Bean
+    public CacheManager cacheManager(SpaceshipCacheProperties properties, SpaceshipCacheLoader spaceshipCacheLoader) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(properties.getDefaultSpec());
+        properties.getSpecs().forEach((name, spec) -> cacheManager.registerCustomCache(name,
+                buildCache(spec, CacheNames.SPACESHIP.equals(name) ? spaceshipCacheLoader : null)));
+        // Puts and evictions issued inside a transaction are deferred until it commits, so a
+        // rolled-back write never leaves a stale value behind.
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> buildCache(String spec, CacheLoader<Object, Object> loader) {
+        Caffeine<Object, Object> builder = Caffeine.from(spec);
+        if (spec.contains(MAXIMUM_WEIGHT)) {
+            builder.weigher(CacheConfig::weigh);
+        }
+        if (spec.contains(REFRESH_AFTER_WRITE)) {
+            if (loader == null) {
+                throw new IllegalStateException("refreshAfterWrite requires a cache loader: " + spec);
+            }
+            return builder.build(loader);
+        }
+        return builder.build();
+    }
+
+    private static int weigh(Object key, Object value) {
+        if (value instanceof CachedResponse response) {
+            return response.weight();
+        }
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Slice<?> slice) {
+            return Math.max(1, slice.getNumberOfElements());
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,95 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * With {@code spaceship.datasource.replica.enabled=true} the application gets two Hikari pools,
+ * sized independently: {@code spring.datasource.*} for the primary and
+ * {@code spaceship.datasource.replica.*} for the read replica. JPA uses a routing data source that
+ * sends read-only transactions to the replica; Flyway always migrates the primary. Replication
+ * itself is external: the replica URL defaults to the primary's, and startup fails unless the
+ * replica already has every migration applied. Both pools publish the usual
+ * {@code hikaricp.connections.*} metrics, tagged with their pool name. When the replica is
+ * disabled none of these beans exist and JPA runs on Spring Boot's auto-configured pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spaceship.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("spaceship-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spaceship.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${spaceship.datasource.replica.url:${spring.datasource.url}}") String url,
+                                              @Value("${spaceship.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${spaceship.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("spaceship-replica");
+        return dataSource;
+    }
+
+    @Bean
+    @DependsOn("flywayInitializer")
+    public InitializingBean replicaSchemaCheck(Flyway flyway, @Qualifier("replicaDataSource") DataSource replica) {
+        return () -> {
+            MigrationInfo[] pending = Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(replica)
+                    .load()
+                    .info()
+                    .pending();
+            if (pending.length > 0) {
+                throw new IllegalStateException("Read replica is missing migrations "
+                        + Arrays.stream(pending).map(MigrationInfo::getVersion).map(String::valueOf).collect(Collectors.joining(", "))
+                        + "; it must replicate the migrated primary");
+            }
+        };
+    }
+
+    @Bean
+    public RecentWriteWindow recentWriteWindow(@Value("${spaceship.datasource.replica.recent-write-window:PT1S}") Duration window) {
+        return new RecentWriteWindow(window);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 RecentWriteWindow recentWrites,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica, recentWrites, meterRegistry));
+    }
+}
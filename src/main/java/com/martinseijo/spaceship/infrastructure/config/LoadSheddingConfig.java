@@ -0,0 +1,28 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import com.martinseijo.spaceship.infrastructure.web.LoadSheddingInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the rate limiter and the adaptive concurrency limit in front of the spaceship endpoints.
+ * The change stream is left out: its connections are meant to stay open and never reach the pool
+ * from the request thread.
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(SpaceshipRateLimitProperties.class)
+public class LoadSheddingConfig implements WebMvcConfigurer {
+
+    private final LoadSheddingInterceptor loadSheddingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(loadSheddingInterceptor)
+                .addPathPatterns("/spaceships/**")
+                .excludePathPatterns("/spaceships/changes/stream");
+    }
+}
@@ -0,0 +1,76 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Runs the reactive routes on their own Reactor Netty server next to the servlet container, so
+ * the blocking and the non-blocking stacks can be loaded side by side in one process.
+ */
+@Component
+@ConditionalOnProperty(name = "spaceship.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveServer implements SmartLifecycle {
+
+    private final RouterFunction<ServerResponse> routes;
+    private final ObjectMapper objectMapper;
+    private final int port;
+    private volatile DisposableServer server;
+
+    public ReactiveServer(RouterFunction<ServerResponse> routes,
+                          ObjectMapper objectMapper,
+                          @Value("${spaceship.reactive.port:8081}") int port) {
+        this.routes = routes;
+        this.objectMapper = objectMapper;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive spaceship API listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer running = server;
+        if (running != null) {
+            running.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        DisposableServer running = server;
+        return running == null ? port : running.port();
+    }
+}
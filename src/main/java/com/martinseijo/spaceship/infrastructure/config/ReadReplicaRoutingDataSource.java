@@ -0,0 +1,70 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to the
+ * primary. It must sit behind a {@code LazyConnectionDataSourceProxy} so the connection is only
+ * fetched once the transaction's read-only flag is known. Read-only transactions fall back to the
+ * primary while the {@link RecentWriteWindow} is open. Routing decisions are counted in
+ * {@code spaceship.datasource.routing}, tagged by target and reason.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+    private static final String METRIC = "spaceship.datasource.routing";
+
+    private final RecentWriteWindow recentWrites;
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter recentWriteReads;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, RecentWriteWindow recentWrites, MeterRegistry meterRegistry) {
+        this.recentWrites = recentWrites;
+        this.writes = counter(meterRegistry, PRIMARY, "read-write");
+        this.replicaReads = counter(meterRegistry, REPLICA, "read-only");
+        this.recentWriteReads = counter(meterRegistry, PRIMARY, "recent-write");
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWrites.markWrite();
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (recentWrites.isOpen()) {
+            recentWriteReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return REPLICA;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder(METRIC)
+                .description("Connections handed out by the read/write routing data source")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local read-your-writes timer: keeps read-only transactions on the primary for
+ * {@code spaceship.datasource.replica.recent-write-window} after the last write committed by this
+ * instance. It does not measure replication lag, so the window must be set above the worst lag
+ * the replica is expected to have, and writes made by other instances do not open it. Writes are
+ * recorded when a read-write JDBC transaction commits and, for the reactive stack which bypasses
+ * the routing data source, when its change events are published.
+ */
+public class RecentWriteWindow {
+
+    private final long windowNanos;
+    private final AtomicLong lastWrite;
+
+    public RecentWriteWindow(Duration window) {
+        this.windowNanos = window.toNanos();
+        this.lastWrite = new AtomicLong(System.nanoTime() - windowNanos);
+    }
+
+    public void markWrite() {
+        lastWrite.set(System.nanoTime());
+    }
+
+    public boolean isOpen() {
+        return System.nanoTime() - lastWrite.get() < windowNanos;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceshipChanged(SpaceshipChangedEvent event) {
+        markWrite();
+    }
+}
@@ -0,0 +1,17 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "spaceship.cache")
+public class SpaceshipCacheProperties {
+
+    private String defaultSpec = "maximumSize=1000,expireAfterWrite=10m,recordStats";
+    private Map<String, String> specs = new LinkedHashMap<>();
+}
@@ -0,0 +1,44 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token buckets per client and route. {@code routes} is keyed by the handler's path pattern, e.g.
+ * {@code spaceship.rate-limit.routes[/spaceships/search].capacity=10}; routes without an entry
+ * use the default bucket.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "spaceship.rate-limit")
+public class SpaceshipRateLimitProperties {
+
+    private boolean enabled = false;
+    private int capacity = 50;
+    private double refillPerSecond = 20;
+    private Map<String, Bucket> routes = new LinkedHashMap<>();
+    private long maxClients = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    public Bucket bucketFor(String route) {
+        Bucket bucket = routes.get(route);
+        return bucket != null ? bucket : new Bucket(capacity, refillPerSecond);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+
+        private int capacity;
+        private double refillPerSecond;
+    }
+}
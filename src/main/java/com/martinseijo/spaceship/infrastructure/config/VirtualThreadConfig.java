@@ -0,0 +1,28 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.time.Duration;
+
+/**
+ * With {@code spring.threads.virtual.enabled=true} Boot runs Tomcat request handling and the
+ * {@code @Async} executor on virtual threads; the Kafka listener containers opt in through
+ * {@link com.martinseijo.spaceship.infrastructure.kafka.KafkaConsumerConfig}.
+ */
+@Configuration
+@EnableAsync
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadPinnedMonitor virtualThreadPinnedMonitor(MeterRegistry meterRegistry,
+                                                                 @Value("${spaceship.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinnedMonitor(meterRegistry, threshold);
+    }
+}
@@ -0,0 +1,33 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.martinseijo.spaceship.infrastructure.web.SpaceshipWireFormats;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registers the hand-written serializers with Spring Boot's {@link com.fasterxml.jackson.databind.ObjectMapper}
+ * and replaces the default CBOR and Smile converters with ones that share its configuration. The
+ * JSON converter stays first, so JSON remains the answer unless a caller asks for a binary format.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public static Module spaceshipJacksonModule() {
+        return SpaceshipWireFormats.spaceshipModule();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(SpaceshipWireFormats wireFormats) {
+        return new MappingJackson2CborHttpMessageConverter(wireFormats.mapperFor(MediaType.APPLICATION_CBOR));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(SpaceshipWireFormats wireFormats) {
+        return new MappingJackson2SmileHttpMessageConverter(wireFormats.mapperFor(SpaceshipWireFormats.SMILE));
+    }
+}
@@ -0,0 +1,54 @@
+package com.martinseijo.spaceship.infrastructure.exception;
+
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+import com.martinseijo.spaceship.domain.exception.InvalidSpaceshipException;
+import com.martinseijo.spaceship.domain.exception.PaginationException;
+import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.exception.VersionConflictException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Functional-endpoint counterpart of {@link GlobalExceptionHandler}: maps the same exceptions to
+ * the same statuses and {@link ErrorDetails} body for the reactive routes.
+ */
+public class ReactiveExceptionFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        return Mono.defer(() -> next.handle(request))
+                .onErrorResume(ex -> handle(ex, request));
+    }
+
+    private static Mono<ServerResponse> handle(Throwable ex, ServerRequest request) {
+        if (ex instanceof ResourceNotFoundException) {
+            return error(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+        }
+        if (ex instanceof InvalidInputException || ex instanceof PaginationException
+                || ex instanceof InvalidSpaceshipException || ex instanceof ServerWebInputException) {
+            return error(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+        }
+        if (ex instanceof DataIntegrityViolationException) {
+            return error(HttpStatus.CONFLICT, "Data integrity violation", request);
+        }
+        if (ex instanceof VersionConflictException) {
+            return error(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request);
+        }
+        if (ex instanceof OptimisticLockingFailureException) {
+            return error(HttpStatus.CONFLICT, "Concurrent modification, try again", request);
+        }
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), request);
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message, ServerRequest request) {
+        return ServerResponse.status(status)
+                .bodyValue(new ErrorDetails(status.value(), message, "uri=" + request.path()));
+    }
+}
@@ -1,15 +1,139 @@
 package com.martinseijo.spaceship.infrastructure.kafka;
 
+import com.martinseijo.spaceship.application.dto.BatchItemResult;
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.SpaceshipEvent;
+import com.martinseijo.spaceship.application.dto.SpaceshipEventType;
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+import com.martinseijo.spaceship.domain.model.ConsumedOffset;
+import com.martinseijo.spaceship.domain.repository.ConsumedOffsetRepository;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch listener that applies spaceship events through {@link SpaceshipService}. Consecutive events
+ * of the same type are written together with the batch operations, preserving the order of the
+ * poll. The whole poll is applied in one transaction that also stores the next offset of each
+ * partition, so a poll redelivered after a crash or a failed acknowledgment skips the records that
+ * already committed instead of applying them again. Malformed records and rows the service rejects
+ * go to the dead-letter topic just before that commit. If the transaction fails, the poll is
+ * applied again one record per transaction, and a record that still fails is handed to the error
+ * handler on its own.
+ */
 @Service
 @Slf4j
 public class KafkaConsumer {
 
-    @KafkaListener(topics = "topic", groupId = "group_id")
-    public void consume(String message) {
-        log.info("Consumed message: {}", message);
+    private final SpaceshipService spaceshipService;
+    private final ConsumedOffsetRepository offsetRepository;
+    private final DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+    private final TransactionTemplate transactionTemplate;
+
+    public KafkaConsumer(SpaceshipService spaceshipService,
+                         ConsumedOffsetRepository offsetRepository,
+                         DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+                         PlatformTransactionManager transactionManager) {
+        this.spaceshipService = spaceshipService;
+        this.offsetRepository = offsetRepository;
+        this.deadLetterPublishingRecoverer = deadLetterPublishingRecoverer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @KafkaListener(topics = "${spaceship.kafka.topic:spaceships}", groupId = "${spaceship.kafka.group-id:spaceship-ingestion}")
+    public void consume(List<ConsumerRecord<String, SpaceshipEvent>> records, Acknowledgment acknowledgment) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyOnce(records));
+        } catch (RuntimeException e) {
+            log.warn("Poll of {} spaceship events failed, retrying one by one: {}", records.size(), e.getMessage());
+            for (ConsumerRecord<String, SpaceshipEvent> consumerRecord : records) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> applyOnce(List.of(consumerRecord)));
+                } catch (RuntimeException recordFailure) {
+                    throw new BatchListenerFailedException(recordFailure.getMessage(), recordFailure, consumerRecord);
+                }
+            }
+        }
+        acknowledgment.acknowledge();
+        log.info("Consumed {} spaceship events", records.size());
+    }
+
+    private void applyOnce(List<ConsumerRecord<String, SpaceshipEvent>> records) {
+        Map<String, Long> nextOffsets = new HashMap<>();
+        records.forEach(r -> nextOffsets.merge(partitionOf(r), r.offset() + 1, Math::max));
+        Map<String, Long> applied = new HashMap<>();
+        offsetRepository.findByTopicPartitionIn(nextOffsets.keySet())
+                .forEach(offset -> applied.put(offset.getTopicPartition(), offset.getNextOffset()));
+
+        List<ConsumerRecord<String, SpaceshipEvent>> deadLetters = new ArrayList<>();
+        List<String> reasons = new ArrayList<>();
+        List<ConsumerRecord<String, SpaceshipEvent>> run = new ArrayList<>();
+        SpaceshipEventType runType = null;
+        for (ConsumerRecord<String, SpaceshipEvent> consumerRecord : records) {
+            if (consumerRecord.offset() < applied.getOrDefault(partitionOf(consumerRecord), 0L)) {
+                continue;
+            }
+            SpaceshipEvent event = consumerRecord.value();
+            if (event == null || event.getType() == null || event.getSpaceship() == null) {
+                deadLetters.add(consumerRecord);
+                reasons.add("Malformed spaceship event");
+                continue;
+            }
+            if (runType != null && event.getType() != runType) {
+                apply(runType, run, deadLetters, reasons);
+                run.clear();
+            }
+            runType = event.getType();
+            run.add(consumerRecord);
+        }
+        if (runType != null) {
+            apply(runType, run, deadLetters, reasons);
+        }
+
+        List<ConsumedOffset> advanced = nextOffsets.entrySet().stream()
+                .filter(next -> next.getValue() > applied.getOrDefault(next.getKey(), 0L))
+                .map(next -> new ConsumedOffset(next.getKey(), next.getValue()))
+                .toList();
+        offsetRepository.saveAllAndFlush(advanced);
+        for (int i = 0; i < deadLetters.size(); i++) {
+            deadLetter(deadLetters.get(i), reasons.get(i));
+        }
+    }
+
+    private void apply(SpaceshipEventType type, List<ConsumerRecord<String, SpaceshipEvent>> run,
+                       List<ConsumerRecord<String, SpaceshipEvent>> deadLetters, List<String> reasons) {
+        BatchResult result = switch (type) {
+            case CREATE -> spaceshipService.createAll(run.stream().map(r -> r.value().getSpaceship()).toList());
+            case UPDATE -> spaceshipService.updateAll(run.stream().map(r -> r.value().getSpaceship()).toList());
+            case DELETE -> spaceshipService.deleteAll(run.stream().map(r -> r.value().getSpaceship().getId()).toList());
+        };
+        for (BatchItemResult item : result.getItems()) {
+            if (item.isFailed()) {
+                deadLetters.add(run.get(item.getIndex()));
+                reasons.add(item.getError());
+            }
+        }
+    }
+
+    private void deadLetter(ConsumerRecord<String, SpaceshipEvent> consumerRecord, String reason) {
+        log.warn("Sending record {}-{}@{} to the dead-letter topic: {}",
+                consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset(), reason);
+        deadLetterPublishingRecoverer.accept(consumerRecord, new InvalidInputException(reason));
+    }
+
+    private static String partitionOf(ConsumerRecord<?, ?> consumerRecord) {
+        return consumerRecord.topic() + "-" + consumerRecord.partition();
     }
 }
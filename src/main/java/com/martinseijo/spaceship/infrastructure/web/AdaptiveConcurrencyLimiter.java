@@ -0,0 +1,97 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD limit on the number of requests in flight. Each completed request is a latency sample: the
+ * limit grows by roughly one per limit's worth of fast samples while it is actually being used,
+ * and is cut by {@code backoff-ratio} when a sample exceeds {@code latency-target} or the request
+ * was itself shed further down with a 503. Cuts happen at most once per {@code latency-target}, so
+ * a burst of slow responses to requests admitted under the old limit counts as one congestion
+ * signal. Requests over the limit are rejected straight away instead of queueing for a connection.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${spaceship.load-shedding.enabled:false}") boolean enabled,
+                                      @Value("${spaceship.load-shedding.initial-limit:20}") int initialLimit,
+                                      @Value("${spaceship.load-shedding.min-limit:5}") int minLimit,
+                                      @Value("${spaceship.load-shedding.max-limit:200}") int maxLimit,
+                                      @Value("${spaceship.load-shedding.latency-target:PT0.25S}") Duration latencyTarget,
+                                      @Value("${spaceship.load-shedding.backoff-ratio:0.9}") double backoffRatio) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.lastDecrease = System.nanoTime() - latencyTargetNanos;
+        Gauge.builder("spaceship.load-shedding.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("spaceship.load-shedding.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted by the adaptive concurrency limiter")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases the slot of a completed request and adjusts the limit from its latency.
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        int before = inFlight.getAndDecrement();
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (overloaded || latencyNanos > latencyTargetNanos) {
+                if (now - lastDecrease >= latencyTargetNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecrease = now;
+                }
+            } else if (before * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Releases a slot without a sample, for requests whose handling went asynchronous.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+}
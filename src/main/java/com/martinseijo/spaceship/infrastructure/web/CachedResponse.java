@@ -0,0 +1,17 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+/**
+ * A list response serialized once, kept with its gzip variant, if the body was worth compressing,
+ * and a strong entity tag for each representation. {@code generation} is the invalidation
+ * generation it was built in.
+ */
+public record CachedResponse(byte[] body, byte[] gzipped, String eTag, String gzipETag, long generation) {
+
+    /**
+     * Weight in KiB, so {@code maximumWeight} bounds the memory the cache holds.
+     */
+    public int weight() {
+        long bytes = (long) body.length + (gzipped == null ? 0 : gzipped.length);
+        return (int) Math.max(1, bytes / 1024);
+    }
+}
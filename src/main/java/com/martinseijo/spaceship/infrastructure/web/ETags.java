@@ -0,0 +1,92 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+import com.martinseijo.spaceship.domain.exception.VersionConflictException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+/**
+ * Strong entity tags derived from the spaceship version, e.g. {@code "3"}. Representations in a
+ * wire format other than JSON carry the format as a suffix, e.g. {@code "3-cbor"}, since their
+ * bytes differ.
+ */
+public final class ETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final char FORMAT_SEPARATOR = '-';
+
+    private ETags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String of(long version, MediaType format) {
+        if (format == null || MediaType.APPLICATION_JSON.equalsTypeAndSubtype(format)) {
+            return of(version);
+        }
+        return "\"" + version + FORMAT_SEPARATOR + format.getSubtype() + "\"";
+    }
+
+    /**
+     * Evaluates an {@code If-None-Match} header with the weak comparison RFC 9110 prescribes for it.
+     */
+    public static boolean matches(String ifNoneMatch, Long version) {
+        return matches(ifNoneMatch, version, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Same as {@link #matches(String, Long)} for the representation in the given wire format.
+     */
+    public static boolean matches(String ifNoneMatch, Long version, MediaType format) {
+        return version != null && matchesAny(ifNoneMatch, of(version, format));
+    }
+
+    /**
+     * Evaluates an {@code If-None-Match} header with weak comparison against each of the
+     * {@code current} tags, any of which validates.
+     */
+    public static boolean matchesAny(String ifNoneMatch, String... current) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith(WEAK_PREFIX)) {
+                candidate = candidate.substring(WEAK_PREFIX.length());
+            }
+            if (candidate.equals(ANY) || Arrays.asList(current).contains(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Turns an {@code If-Match} header into the version the update is conditional on, or
+     * {@code null} when the header is absent or {@code *}. The tag of any wire format names the
+     * same version. A weak or foreign tag can never match strongly, so it fails the precondition.
+     */
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new InvalidInputException("If-Match must contain a single entity tag");
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new VersionConflictException("If-Match " + tag + " does not match the current entity tag");
+        }
+        String opaque = tag.substring(1, tag.length() - 1);
+        int separator = opaque.indexOf(FORMAT_SEPARATOR);
+        try {
+            return Long.parseLong(separator < 0 ? opaque : opaque.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new VersionConflictException("If-Match " + tag + " does not match the current entity tag");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON),
+    JSON("json", MediaType.APPLICATION_JSON);
+
+    private final String value;
+    private final MediaType mediaType;
+
+    public static ExportFormat from(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new InvalidInputException("Unsupported export format: " + value));
+    }
+}
@@ -0,0 +1,92 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.martinseijo.spaceship.domain.exception.RateLimitedException;
+import com.martinseijo.spaceship.domain.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load before a request reaches the controller: first the client's token bucket for the
+ * route ({@code 429}), then the adaptive concurrency limit ({@code 503}), both with
+ * {@code Retry-After}. Rejected requests never touch the service or the connection pool, so a
+ * spike is turned away early instead of queueing until every request times out together.
+ */
+@Component
+public class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_AT = LoadSheddingInterceptor.class.getName() + ".startedAt";
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Counter rateLimited;
+    private final Counter concurrencyLimited;
+
+    public LoadSheddingInterceptor(TokenBucketRateLimiter rateLimiter,
+                                   AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                   MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.rateLimited = rejected(meterRegistry, "rate-limit");
+        this.concurrencyLimited = rejected(meterRegistry, "concurrency-limit");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (rateLimiter.isEnabled()) {
+            long waitNanos = rateLimiter.tryConsume(request.getRemoteAddr(), route(request));
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                throw new RateLimitedException("Too many requests, try again later", retryAfterSeconds(waitNanos));
+            }
+        }
+        if (concurrencyLimiter.isEnabled()) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                concurrencyLimited.increment();
+                throw new ServiceOverloadedException("Server is at its concurrency limit, try again later");
+            }
+            request.setAttribute(STARTED_AT, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(STARTED_AT) != null) {
+            request.removeAttribute(STARTED_AT);
+            concurrencyLimiter.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            request.removeAttribute(STARTED_AT);
+            concurrencyLimiter.release(System.nanoTime() - startedAt,
+                    response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return waitNanos == Long.MAX_VALUE ? 60 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("spaceship.load-shedding.rejected")
+                .description("Requests rejected before reaching the controller")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
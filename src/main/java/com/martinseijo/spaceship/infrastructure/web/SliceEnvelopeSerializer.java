@@ -0,0 +1,62 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+
+/**
+ * Compact envelope for pages and slices in the binary formats: the content and the numbers a
+ * client pages with, without the nested {@code pageable} and {@code sort} objects the JSON
+ * representation carries. {@code totalElements} and {@code totalPages} are only written for a
+ * {@link Page}.
+ */
+@SuppressWarnings("rawtypes")
+public class SliceEnvelopeSerializer extends StdSerializer<Slice> {
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString NUMBER_OF_ELEMENTS = new SerializedString("numberOfElements");
+    private static final SerializableString FIRST = new SerializedString("first");
+    private static final SerializableString LAST = new SerializedString("last");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+
+    public SliceEnvelopeSerializer() {
+        super(Slice.class);
+    }
+
+    @Override
+    public void serialize(Slice slice, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(slice);
+        generator.writeFieldName(CONTENT);
+        generator.writeStartArray(slice.getContent(), slice.getNumberOfElements());
+        for (Object element : slice.getContent()) {
+            provider.defaultSerializeValue(element, generator);
+        }
+        generator.writeEndArray();
+        generator.writeFieldName(NUMBER);
+        generator.writeNumber(slice.getNumber());
+        generator.writeFieldName(SIZE);
+        generator.writeNumber(slice.getSize());
+        generator.writeFieldName(NUMBER_OF_ELEMENTS);
+        generator.writeNumber(slice.getNumberOfElements());
+        generator.writeFieldName(FIRST);
+        generator.writeBoolean(slice.isFirst());
+        generator.writeFieldName(LAST);
+        generator.writeBoolean(slice.isLast());
+        if (slice instanceof Page<?> page) {
+            generator.writeFieldName(TOTAL_ELEMENTS);
+            generator.writeNumber(page.getTotalElements());
+            generator.writeFieldName(TOTAL_PAGES);
+            generator.writeNumber(page.getTotalPages());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,173 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipChangeDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipChangePage;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.exception.ChangeFeedExpiredException;
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the change feed to server-sent event subscribers. Every committed change only raises a
+ * signal; each subscriber then has its own delivery task, on a virtual thread, that reads its
+ * backlog from the change log. Signals raised while a subscriber's task runs collapse into one more
+ * pass of that task, so bursts of writes cost one pass per subscriber, and a slow or stalled client
+ * only holds up its own deliveries. Every subscriber receives the same ordered, gap-free sequence
+ * as a client polling {@code GET /spaceships/changes}. Each event carries its sequence number as
+ * the SSE id, so a reconnecting client resumes from {@code Last-Event-ID}. A periodic heartbeat
+ * keeps idle connections open, detects dead ones and catches up on any signal that was missed.
+ */
+@Component
+@Slf4j
+public class SpaceshipChangeStream {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final SpaceshipService spaceshipService;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("spaceship-change-stream-", 0).factory());
+
+    public SpaceshipChangeStream(SpaceshipService spaceshipService,
+                                 @Value("${spaceship.changes.stream.timeout:PT30M}") Duration timeout) {
+        this.spaceshipService = spaceshipService;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Opens a stream starting after {@code since}, or at the current head when it is absent.
+     */
+    public SseEmitter subscribe(Long since) {
+        if (since != null && since < 0) {
+            throw new InvalidInputException("Since cannot be negative");
+        }
+        long start = since != null ? since : spaceshipService.getChanges(null, 1).getNextSince();
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, start);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceshipChanged(SpaceshipChangedEvent event) {
+        signal();
+    }
+
+    @Scheduled(fixedDelayString = "${spaceship.changes.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void signal() {
+        subscribers.forEach(this::schedule);
+    }
+
+    /**
+     * Starts the subscriber's delivery task unless it is already running, in which case the task
+     * makes one more pass before it exits, so at most one task per subscriber sends at a time.
+     */
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.signals.getAndIncrement() == 0) {
+            try {
+                sender.execute(() -> run(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.signals.set(0);
+            }
+        }
+    }
+
+    private void run(Subscriber subscriber) {
+        int missed = 1;
+        do {
+            if (subscribers.contains(subscriber)) {
+                deliver(subscriber);
+            }
+            missed = subscriber.signals.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void deliver(Subscriber subscriber) {
+        try {
+            if (subscriber.heartbeatDue) {
+                subscriber.heartbeatDue = false;
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            SpaceshipChangePage page;
+            do {
+                page = spaceshipService.getChanges(subscriber.since, PAGE_SIZE);
+                for (SpaceshipChangeDTO change : page.getChanges()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSeq()))
+                            .name("change")
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+                subscriber.since = page.getNextSince();
+            } while (page.isHasMore());
+        } catch (ChangeFeedExpiredException e) {
+            expire(subscriber, e);
+        } catch (IOException | RuntimeException e) {
+            drop(subscriber, e);
+        }
+    }
+
+    private void expire(Subscriber subscriber, ChangeFeedExpiredException e) {
+        subscribers.remove(subscriber);
+        try {
+            subscriber.emitter.send(SseEmitter.event().name("expired").data(e.getMessage()));
+            subscriber.emitter.complete();
+        } catch (IOException | RuntimeException sendFailure) {
+            subscriber.emitter.completeWithError(sendFailure);
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception e) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("Dropping change stream subscriber: {}", e.getMessage());
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicInteger signals = new AtomicInteger();
+        private volatile boolean heartbeatDue;
+        private long since;
+
+        private Subscriber(SseEmitter emitter, long since) {
+            this.emitter = emitter;
+            this.since = since;
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package com.martinseijo.spaceship.infrastructure.web;
 
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.SpaceshipChangePage;
 import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
 import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.dto.SpaceshipLookup;
+import com.martinseijo.spaceship.application.dto.SpaceshipSlice;
 import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
-import org.springframework.data.domain.Page;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 public interface SpaceshipController {
-    ResponseEntity<List<SpaceshipDTO>> getAllSpaceships();
-    ResponseEntity<SpaceshipDTO> getById(Long id) throws ResourceNotFoundException;
-    ResponseEntity<Page<SpaceshipDTO>> getAllSpaceshipsPaginated(Pageable pageable);
-    ResponseEntity<Page<SpaceshipDTO>> getSpaceshipsByFilter(SpaceshipFilter filter, Pageable pageable);
+    ResponseEntity<?> getAllSpaceships(HttpServletRequest request);
+    ResponseEntity<StreamingResponseBody> exportSpaceships(String format);
+    ResponseEntity<?> getById(Long id, String ifNoneMatch, String accept) throws ResourceNotFoundException;
+    ResponseEntity<?> getAllSpaceshipsPaginated(Pageable pageable, String count, HttpServletRequest request);
+    ResponseEntity<?> getSpaceshipsByFilter(SpaceshipFilter filter, Pageable pageable, String count, HttpServletRequest request);
+    ResponseEntity<SpaceshipSlice> getSpaceshipsScroll(String cursor, int size, String order);
+    ResponseEntity<SpaceshipSlice> getSpaceshipsByFilterScroll(SpaceshipFilter filter, String cursor, int size);
     ResponseEntity<SpaceshipDTO> create(SpaceshipDTO spaceshipDTO);
-    ResponseEntity<SpaceshipDTO> update(SpaceshipDTO spaceshipDTO) throws ResourceNotFoundException;
+    ResponseEntity<SpaceshipDTO> update(SpaceshipDTO spaceshipDTO, String ifMatch) throws ResourceNotFoundException;
     ResponseEntity<Void> deleteById(Long id) throws ResourceNotFoundException;
+    ResponseEntity<List<SpaceshipLookup>> getByIds(List<Long> ids);
+    ResponseEntity<BatchResult> createAll(List<SpaceshipDTO> spaceshipDTOs);
+    ResponseEntity<BatchResult> updateAll(List<SpaceshipDTO> spaceshipDTOs);
+    ResponseEntity<BatchResult> deleteAll(List<Long> ids);
+    ResponseEntity<SpaceshipChangePage> getChanges(Long since, int limit);
+    SseEmitter streamChanges(Long since, Long lastEventId);
 }
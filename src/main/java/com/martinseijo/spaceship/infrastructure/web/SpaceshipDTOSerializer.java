@@ -0,0 +1,46 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link SpaceshipDTO} field by field with pre-encoded names, instead of going through the
+ * reflective bean serializer. It writes the same fields as the bean serializer, nulls included;
+ * announcing the field count up front lets CBOR write a definite-length map, one byte shorter.
+ */
+public class SpaceshipDTOSerializer extends StdSerializer<SpaceshipDTO> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    public SpaceshipDTOSerializer() {
+        super(SpaceshipDTO.class);
+    }
+
+    @Override
+    public void serialize(SpaceshipDTO spaceship, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(spaceship, 3);
+        generator.writeFieldName(ID);
+        writeLong(generator, spaceship.getId());
+        generator.writeFieldName(NAME);
+        generator.writeString(spaceship.getName());
+        generator.writeFieldName(VERSION);
+        writeLong(generator, spaceship.getVersion());
+        generator.writeEndObject();
+    }
+
+    private static void writeLong(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opt-in cache of whole list responses. The body of each route, parameter combination and
+ * negotiated wire format is serialized once, gzipped once at the highest level when it is at
+ * least {@code gzip-min-size} bytes, and tagged with a strong ETag derived from its content;
+ * repeated requests are then a copy of those bytes, and a matching {@code If-None-Match} on a
+ * {@code GET} answers {@code 304}. Every committed change starts a new generation: entries built
+ * before it are no longer served, and a response whose build overlapped the change is not stored.
+ * The service's list caches underneath are only cleared, so a read-only transaction that started
+ * before the commit can still refill them with the old list, and responses built from it are
+ * served until the next change or until those entries expire.
+ */
+@Component
+public class SpaceshipResponseCache {
+
+    private static final String GZIP = "gzip";
+    private static final String GZIP_SUFFIX = "-gzip";
+    private static final List<String> LIST_CACHES = List.of(CacheNames.SPACESHIPS, CacheNames.SPACESHIP_PAGES, CacheNames.SPACESHIP_SEARCH);
+
+    private final SpaceshipWireFormats wireFormats;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private final int gzipMinSize;
+    private final AtomicLong generation = new AtomicLong();
+
+    public SpaceshipResponseCache(SpaceshipWireFormats wireFormats,
+                                  CacheManager cacheManager,
+                                  @Value("${spaceship.response-cache.enabled:false}") boolean enabled,
+                                  @Value("${spaceship.response-cache.gzip-min-size:1024}") int gzipMinSize) {
+        this.wireFormats = wireFormats;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    /**
+     * Answers the request from the cached response for its path and {@code params}, building it
+     * with {@code loader} on a miss. When the cache is disabled the loaded body is returned as is.
+     */
+    public ResponseEntity<?> respond(HttpServletRequest request, List<?> params, Supplier<?> loader) {
+        if (!enabled) {
+            return ResponseEntity.ok(loader.get());
+        }
+        MediaType format = wireFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        CachedResponse response = lookup(Arrays.asList(request.getRequestURI(), params, format), format, loader);
+        boolean gzip = response.gzipped() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String eTag = gzip ? response.gzipETag() : response.eTag();
+        if (HttpMethod.GET.matches(request.getMethod()) && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), response)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(format);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return builder.body(gzip ? response.gzipped() : response.body());
+    }
+
+    /**
+     * The service evicts its own list caches only once the writing call returns, which is after
+     * this listener runs, so they are cleared here first; otherwise a response of the new
+     * generation could be rebuilt from a list that predates the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceshipChanged(SpaceshipChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        LIST_CACHES.forEach(this::clear);
+        generation.incrementAndGet();
+        clear(CacheNames.SPACESHIP_RESPONSES);
+    }
+
+    private CachedResponse lookup(Object key, MediaType format, Supplier<?> loader) {
+        Cache cache = cacheManager.getCache(CacheNames.SPACESHIP_RESPONSES);
+        long current = generation.get();
+        CachedResponse cached = cache == null ? null : cache.get(key, CachedResponse.class);
+        if (cached != null && cached.generation() == current) {
+            return cached;
+        }
+        CachedResponse built = build(loader.get(), format, current);
+        if (cache != null && generation.get() == current) {
+            cache.put(key, built);
+        }
+        return built;
+    }
+
+    private CachedResponse build(Object body, MediaType format, long generation) {
+        byte[] serialized;
+        try {
+            serialized = wireFormats.mapperFor(format).writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+        String hash = HexFormat.of().formatHex(sha256(serialized), 0, 16);
+        byte[] gzipped = serialized.length >= gzipMinSize ? gzip(serialized) : null;
+        return new CachedResponse(serialized, gzipped, "\"" + hash + "\"", "\"" + hash + GZIP_SUFFIX + "\"", generation);
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Either coding's tag validates, since both stand for the same content.
+     */
+    private static boolean matches(String ifNoneMatch, CachedResponse response) {
+        return ETags.matchesAny(ifNoneMatch, response.eTag(), response.gzipETag());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
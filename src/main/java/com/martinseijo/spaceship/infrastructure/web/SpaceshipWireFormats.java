@@ -0,0 +1,93 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The representations the API can answer with: JSON, the default, and the binary CBOR and Smile
+ * encodings of the same model for service-to-service callers that ask for them in {@code Accept}.
+ * The binary mappers are built from the application's Jackson configuration and write pages and
+ * slices with {@link SliceEnvelopeSerializer}.
+ */
+@Component
+public class SpaceshipWireFormats {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+
+    public SpaceshipWireFormats(ObjectMapper objectMapper, ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, binaryMapper(builders.getObject(), new CBORFactory()));
+        mappers.put(SMILE, binaryMapper(builders.getObject(), new SmileFactory()));
+    }
+
+    /**
+     * Serializers shared by every format, registered on the application's {@link ObjectMapper}.
+     */
+    public static Module spaceshipModule() {
+        return new SimpleModule("spaceship").addSerializer(SpaceshipDTO.class, new SpaceshipDTOSerializer());
+    }
+
+    /**
+     * Serializers only the binary formats use.
+     */
+    public static Module binaryEnvelopeModule() {
+        return new SimpleModule("spaceship-binary").addSerializer(Slice.class, new SliceEnvelopeSerializer());
+    }
+
+    public ObjectMapper mapperFor(MediaType format) {
+        return mappers.get(format);
+    }
+
+    /**
+     * The format to answer a request with {@code accept} in: the supported type the client ranks
+     * highest, JSON when it names none of them or sends no {@code Accept} at all.
+     */
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType candidate : accepted) {
+            if (candidate.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType format : mappers.keySet()) {
+                if (candidate.includes(format)) {
+                    return format;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        ObjectMapper mapper = builder.factory(factory).build();
+        mapper.registerModule(binaryEnvelopeModule());
+        return mapper;
+    }
+}
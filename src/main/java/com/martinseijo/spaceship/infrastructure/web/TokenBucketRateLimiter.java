@@ -0,0 +1,67 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.martinseijo.spaceship.infrastructure.config.SpaceshipRateLimitProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * One token bucket per client and route, refilled lazily on each request. Buckets idle for longer
+ * than {@code idle-timeout} are dropped, and at most {@code max-clients} are kept, so a flood of
+ * distinct clients cannot grow the map without bound.
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    private final SpaceshipRateLimitProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+
+    public TokenBucketRateLimiter(SpaceshipRateLimitProperties properties) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Takes a token from the client's bucket for the route. Returns {@code 0} when one was
+     * available, or the nanoseconds until the next token otherwise.
+     */
+    public long tryConsume(String client, String route) {
+        TokenBucket bucket = buckets.get(client + ' ' + route, key -> {
+            SpaceshipRateLimitProperties.Bucket limits = properties.bucketFor(route);
+            return new TokenBucket(limits.getCapacity(), limits.getRefillPerSecond(), System.nanoTime());
+        });
+        return bucket.tryConsume(System.nanoTime());
+    }
+
+    static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(int capacity, double refillPerSecond, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        synchronized long tryConsume(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+        }
+    }
+}
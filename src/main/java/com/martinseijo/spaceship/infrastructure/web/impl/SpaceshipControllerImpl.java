@@ -1,23 +1,49 @@
 package com.martinseijo.spaceship.infrastructure.web.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.CountStrategy;
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
+import com.martinseijo.spaceship.application.dto.SpaceshipChangeDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipChangePage;
 import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
 import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.dto.SpaceshipLookup;
+import com.martinseijo.spaceship.application.dto.SpaceshipSlice;
+import com.martinseijo.spaceship.application.readmodel.SpaceshipReadModel;
 import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
 import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import com.martinseijo.spaceship.infrastructure.web.ETags;
+import com.martinseijo.spaceship.infrastructure.web.ExportFormat;
+import com.martinseijo.spaceship.infrastructure.web.SpaceshipChangeStream;
 import com.martinseijo.spaceship.infrastructure.web.SpaceshipController;
+import com.martinseijo.spaceship.infrastructure.web.SpaceshipResponseCache;
+import com.martinseijo.spaceship.infrastructure.web.SpaceshipWireFormats;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
@@ -26,7 +52,14 @@ import java.util.List;
 @Tag(name = "Spaceships", description = "API for managing spaceships")
 public class SpaceshipControllerImpl implements SpaceshipController {
 
+    private static final String COUNT_STRATEGY = "X-Count-Strategy";
+
     private final SpaceshipService spaceshipService;
+    private final ObjectMapper objectMapper;
+    private final SpaceshipReadModel readModel;
+    private final SpaceshipChangeStream changeStream;
+    private final SpaceshipResponseCache responseCache;
+    private final SpaceshipWireFormats wireFormats;
 
     @Override
     @Operation(summary = "Get all spaceships", description = "Retrieve a list of all spaceships")
@@ -37,13 +70,30 @@ public class SpaceshipControllerImpl implements SpaceshipController {
             @ApiResponse(responseCode = "404", description = "Spaceships not found",
                     content = @Content) })
     @GetMapping
-    public ResponseEntity<List<SpaceshipDTO>> getAllSpaceships() {
-        List<SpaceshipDTO> spaceships = spaceshipService.getAllSpaceships();
-        return ResponseEntity.ok(spaceships);
+    public ResponseEntity<?> getAllSpaceships(HttpServletRequest request) {
+        return responseCache.respond(request, List.of(), spaceshipService::getAllSpaceships);
     }
 
     @Override
-    @Operation(summary = "Get paginated spaceships", description = "Retrieve a paginated list of spaceships")
+    @Operation(summary = "Export all spaceships", description = "Stream every spaceship as NDJSON (default) or as a JSON array")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Spaceships streamed",
+                    content = { @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = SpaceshipDTO.class)) }),
+            @ApiResponse(responseCode = "400", description = "Unsupported export format",
+                    content = @Content) })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSpaceships(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = outputStream -> writeExport(outputStream, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(body);
+    }
+
+    @Override
+    @Operation(summary = "Get paginated spaceships", description = "Retrieve a paginated list of spaceships; "
+            + "count=exact|cached|estimated|none chooses how the total is obtained, and none returns no total")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found the spaceships",
                     content = { @Content(mediaType = "application/json",
@@ -51,9 +101,12 @@ public class SpaceshipControllerImpl implements SpaceshipController {
             @ApiResponse(responseCode = "404", description = "Spaceships not found",
                     content = @Content) })
     @GetMapping("/paginated")
-    public ResponseEntity<Page<SpaceshipDTO>> getAllSpaceshipsPaginated(Pageable pageable) {
-        Page<SpaceshipDTO> result = spaceshipService.getAllSpaceshipsPaginated(pageable);
-        return ResponseEntity.ok(result);
+    public ResponseEntity<?> getAllSpaceshipsPaginated(Pageable pageable,
+                                                       @RequestParam(defaultValue = "exact") String count,
+                                                       HttpServletRequest request) {
+        CountStrategy strategy = CountStrategy.from(count);
+        return withCountStrategy(responseCache.respond(request, List.of(pageable, strategy),
+                () -> spaceshipService.getAllSpaceshipsPaginated(pageable, strategy)), strategy);
     }
 
     @Override
@@ -62,16 +115,41 @@ public class SpaceshipControllerImpl implements SpaceshipController {
             @ApiResponse(responseCode = "200", description = "Found the spaceship",
                     content = { @Content(mediaType = "application/json",
                             schema = @Schema(implementation = SpaceshipDTO.class)) }),
+            @ApiResponse(responseCode = "304", description = "Spaceship not modified",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Spaceship not found",
                     content = @Content) })
     @GetMapping("/{id}")
-    public ResponseEntity<SpaceshipDTO> getById(@PathVariable Long id) throws ResourceNotFoundException {
+    public ResponseEntity<?> getById(@PathVariable Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws ResourceNotFoundException {
+        // The read model keeps JSON bytes, so binary formats are serialized from the DTO.
+        MediaType format = wireFormats.negotiate(accept);
+        if (readModel.isEnabled() && MediaType.APPLICATION_JSON.equals(format)) {
+            Long version = ifNoneMatch == null ? null : readModel.getVersion(id);
+            if (ETags.matches(ifNoneMatch, version, format)) {
+                return notModified(version, format);
+            }
+            SpaceshipReadModel.Entry entry = readModel.get(id);
+            if (entry != null) {
+                return withETag(ResponseEntity.ok(), entry.version(), format)
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(entry.json());
+            }
+        }
         SpaceshipDTO spaceship = spaceshipService.getById(id);
-        return ResponseEntity.ok(spaceship);
+        if (ETags.matches(ifNoneMatch, spaceship.getVersion(), format)) {
+            return notModified(spaceship.getVersion(), format);
+        }
+        return withETag(ResponseEntity.ok(), spaceship.getVersion(), format)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(spaceship);
     }
 
     @Override
-    @Operation(summary = "Search spaceships by filter", description = "Search for spaceships using a filter")
+    @Operation(summary = "Search spaceships by filter", description = "Search for spaceships using a filter; "
+            + "count=exact|cached|estimated|none chooses how the total is obtained, and none returns no total")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found the spaceships",
                     content = { @Content(mediaType = "application/json",
@@ -79,9 +157,45 @@ public class SpaceshipControllerImpl implements SpaceshipController {
             @ApiResponse(responseCode = "404", description = "Spaceships not found",
                     content = @Content) })
     @PostMapping("/search")
-    public ResponseEntity<Page<SpaceshipDTO>> getSpaceshipsByFilter(@RequestBody SpaceshipFilter filter, Pageable pageable) {
-        Page<SpaceshipDTO> spaceships = spaceshipService.getSpaceshipsByFilter(filter, pageable);
-        return ResponseEntity.ok(spaceships);
+    public ResponseEntity<?> getSpaceshipsByFilter(@RequestBody SpaceshipFilter filter, Pageable pageable,
+                                                   @RequestParam(defaultValue = "exact") String count,
+                                                   HttpServletRequest request) {
+        CountStrategy strategy = CountStrategy.from(count);
+        return withCountStrategy(responseCache.respond(request, Arrays.asList(filter.getName(), filter.getMode(), pageable, strategy),
+                () -> spaceshipService.getSpaceshipsByFilter(filter, pageable, strategy)), strategy);
+    }
+
+    @Override
+    @Operation(summary = "Scroll spaceships", description = "Retrieve spaceships with keyset pagination, continuing from an opaque cursor; "
+            + "the cursor keeps the order of the first page, and an order that differs from it is rejected")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found the spaceships",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SpaceshipSlice.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or order, or an order that does not match the cursor",
+                    content = @Content) })
+    @GetMapping("/scroll")
+    public ResponseEntity<SpaceshipSlice> getSpaceshipsScroll(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int size,
+                                                              @RequestParam(required = false) String order) {
+        SpaceshipSlice slice = spaceshipService.getSpaceshipsScroll(cursor, size, order == null ? null : ScrollOrder.from(order));
+        return ResponseEntity.ok(slice);
+    }
+
+    @Override
+    @Operation(summary = "Scroll spaceships by filter", description = "Search spaceships with keyset pagination, continuing from an opaque cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found the spaceships",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SpaceshipSlice.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size",
+                    content = @Content) })
+    @PostMapping("/search/scroll")
+    public ResponseEntity<SpaceshipSlice> getSpaceshipsByFilterScroll(@RequestBody SpaceshipFilter filter,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int size) {
+        SpaceshipSlice slice = spaceshipService.getSpaceshipsByFilterScroll(filter, cursor, size);
+        return ResponseEntity.ok(slice);
     }
 
     @Override
@@ -95,7 +209,7 @@ public class SpaceshipControllerImpl implements SpaceshipController {
     @PostMapping("/create")
     public ResponseEntity<SpaceshipDTO> create(@RequestBody SpaceshipDTO dto) {
         SpaceshipDTO createdSpaceship = spaceshipService.create(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdSpaceship);
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), createdSpaceship.getVersion()).body(createdSpaceship);
     }
 
     @Override
@@ -105,11 +219,18 @@ public class SpaceshipControllerImpl implements SpaceshipController {
                     content = { @Content(mediaType = "application/json",
                             schema = @Schema(implementation = SpaceshipDTO.class)) }),
             @ApiResponse(responseCode = "404", description = "Spaceship not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "412", description = "Spaceship modified since the given version",
                     content = @Content) })
     @PutMapping("/update")
-    public ResponseEntity<SpaceshipDTO> update(@RequestBody SpaceshipDTO dto) throws ResourceNotFoundException {
+    public ResponseEntity<SpaceshipDTO> update(@RequestBody SpaceshipDTO dto,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws ResourceNotFoundException {
+        Long expectedVersion = ETags.parseVersion(ifMatch);
+        if (expectedVersion != null) {
+            dto.setVersion(expectedVersion);
+        }
         SpaceshipDTO updatedSpaceship = spaceshipService.update(dto);
-        return ResponseEntity.ok(updatedSpaceship);
+        return withETag(ResponseEntity.ok(), updatedSpaceship.getVersion()).body(updatedSpaceship);
     }
 
     @Override
@@ -125,4 +246,127 @@ public class SpaceshipControllerImpl implements SpaceshipController {
         spaceshipService.delete(id);
         return ResponseEntity.ok().build();
     }
+
+    @Override
+    @Operation(summary = "Get spaceships in bulk", description = "Retrieve many spaceships by ID in one call, in request order; unknown IDs are marked as not found")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookups processed",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SpaceshipLookup.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid list of IDs",
+                    content = @Content) })
+    @PostMapping("/batch/get")
+    public ResponseEntity<List<SpaceshipLookup>> getByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(spaceshipService.getByIds(ids));
+    }
+
+    @Override
+    @Operation(summary = "Create spaceships in bulk", description = "Create many spaceships in one call; every row gets its own result")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResult.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid batch",
+                    content = @Content) })
+    @PostMapping("/batch/create")
+    public ResponseEntity<BatchResult> createAll(@RequestBody List<SpaceshipDTO> dtos) {
+        return ResponseEntity.ok(spaceshipService.createAll(dtos));
+    }
+
+    @Override
+    @Operation(summary = "Update spaceships in bulk", description = "Update many spaceships in one call; every row gets its own result")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResult.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid batch",
+                    content = @Content) })
+    @PutMapping("/batch/update")
+    public ResponseEntity<BatchResult> updateAll(@RequestBody List<SpaceshipDTO> dtos) {
+        return ResponseEntity.ok(spaceshipService.updateAll(dtos));
+    }
+
+    @Override
+    @Operation(summary = "Delete spaceships in bulk", description = "Delete many spaceships by ID in one call; every row gets its own result")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResult.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid batch",
+                    content = @Content) })
+    @PostMapping("/batch/delete")
+    public ResponseEntity<BatchResult> deleteAll(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(spaceshipService.deleteAll(ids));
+    }
+
+    @Override
+    @Operation(summary = "Get spaceship changes", description = "Retrieve the creates, updates and deletes committed after a sequence number, oldest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found the changes",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SpaceshipChangePage.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid since or limit",
+                    content = @Content),
+            @ApiResponse(responseCode = "410", description = "Changes after since have been pruned",
+                    content = @Content) })
+    @GetMapping("/changes")
+    public ResponseEntity<SpaceshipChangePage> getChanges(@RequestParam(required = false) Long since,
+                                                          @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(spaceshipService.getChanges(since, limit));
+    }
+
+    @Override
+    @Operation(summary = "Stream spaceship changes", description = "Server-sent events with every change committed after a sequence number, as they happen")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes streamed",
+                    content = { @Content(mediaType = "text/event-stream",
+                            schema = @Schema(implementation = SpaceshipChangeDTO.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid since",
+                    content = @Content) })
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeStream.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Long version) {
+        return version == null ? builder : builder.eTag(ETags.of(version));
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Long version, MediaType format) {
+        return version == null ? builder : builder.eTag(ETags.of(version, format));
+    }
+
+    private static ResponseEntity<?> withCountStrategy(ResponseEntity<?> response, CountStrategy strategy) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(COUNT_STRATEGY, strategy.getValue())
+                .body(response.getBody());
+    }
+
+    private static ResponseEntity<Void> notModified(Long version, MediaType format) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(ETags.of(version, format))
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    private void writeExport(OutputStream outputStream, ExportFormat format) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(SpaceshipDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             SequenceWriter sequence = format == ExportFormat.JSON
+                     ? writer.writeValuesAsArray(generator)
+                     : writer.writeValues(generator)) {
+            spaceshipService.exportAll(dto -> {
+                try {
+                    sequence.write(dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.martinseijo.spaceship.infrastructure.web.reactive;
+
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
+import com.martinseijo.spaceship.domain.service.ReactiveSpaceshipService;
+import com.martinseijo.spaceship.infrastructure.web.ETags;
+import com.martinseijo.spaceship.infrastructure.web.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive twin of {@code SpaceshipControllerImpl}. Collections are written to the response as the
+ * database emits them, so a slow client slows the query down instead of buffering the result.
+ */
+@Component
+@ConditionalOnProperty(name = "spaceship.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class SpaceshipHandler {
+
+    private final ReactiveSpaceshipService spaceshipService;
+
+    public Mono<ServerResponse> getAllSpaceships(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(spaceshipService.getAllSpaceships(), SpaceshipDTO.class);
+    }
+
+    public Mono<ServerResponse> exportSpaceships(ServerRequest request) {
+        ExportFormat format = ExportFormat.from(request.queryParam("format").orElse("ndjson"));
+        return ServerResponse.ok()
+                .contentType(format.getMediaType())
+                .body(spaceshipService.getAllSpaceships(), SpaceshipDTO.class);
+    }
+
+    public Mono<ServerResponse> getById(ServerRequest request) {
+        String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+        return spaceshipService.getById(pathId(request))
+                .flatMap(spaceship -> ETags.matches(ifNoneMatch, spaceship.getVersion())
+                        ? ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(spaceship.getVersion())).build()
+                        : withETag(ServerResponse.ok(), spaceship.getVersion())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(spaceship));
+    }
+
+    public Mono<ServerResponse> getSpaceshipsByFilter(ServerRequest request) {
+        Pageable pageable = pageable(request);
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request.bodyToMono(SpaceshipFilter.class)
+                        .flatMapMany(filter -> spaceshipService.getSpaceshipsByFilter(filter, pageable)), SpaceshipDTO.class);
+    }
+
+    public Mono<ServerResponse> getSpaceshipsScroll(ServerRequest request) {
+        String cursor = request.queryParam("cursor").orElse(null);
+        int size = intParam(request, "size", 20);
+        ScrollOrder order = request.queryParam("order").map(ScrollOrder::from).orElse(null);
+        return spaceshipService.getSpaceshipsScroll(cursor, size, order)
+                .flatMap(slice -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(slice));
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(SpaceshipDTO.class)
+                .flatMap(spaceshipService::create)
+                .flatMap(created -> withETag(ServerResponse.status(HttpStatus.CREATED), created.getVersion())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(created));
+    }
+
+    public Mono<ServerResponse> update(ServerRequest request) {
+        Long expectedVersion = ETags.parseVersion(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+        return request.bodyToMono(SpaceshipDTO.class)
+                .flatMap(dto -> {
+                    if (expectedVersion != null) {
+                        dto.setVersion(expectedVersion);
+                    }
+                    return spaceshipService.update(dto);
+                })
+                .flatMap(updated -> withETag(ServerResponse.ok(), updated.getVersion())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(updated));
+    }
+
+    public Mono<ServerResponse> deleteById(ServerRequest request) {
+        return spaceshipService.delete(pathId(request))
+                .then(ServerResponse.ok().build());
+    }
+
+    private static ServerResponse.BodyBuilder withETag(ServerResponse.BodyBuilder builder, Long version) {
+        return version == null ? builder : builder.eTag(ETags.of(version));
+    }
+
+    private static Long pathId(ServerRequest request) {
+        String id = request.pathVariable("id");
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Invalid spaceship id: " + id);
+        }
+    }
+
+    private static Pageable pageable(ServerRequest request) {
+        try {
+            return PageRequest.of(intParam(request, "page", 0), intParam(request, "size", 20));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException(e.getMessage());
+        }
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Invalid value for " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.martinseijo.spaceship.infrastructure.web.reactive;
+
+import com.martinseijo.spaceship.infrastructure.exception.ReactiveExceptionFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+@Configuration
+@ConditionalOnProperty(name = "spaceship.reactive.enabled", havingValue = "true")
+public class SpaceshipRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> spaceshipRoutes(SpaceshipHandler handler) {
+        return RouterFunctions.route()
+                .path("/spaceships", builder -> builder
+                        .GET("", handler::getAllSpaceships)
+                        .GET("/export", handler::exportSpaceships)
+                        .GET("/scroll", handler::getSpaceshipsScroll)
+                        .GET("/{id}", handler::getById)
+                        .POST("/search", handler::getSpaceshipsByFilter)
+                        .POST("/create", handler::create)
+                        .PUT("/update", handler::update)
+                        .DELETE("/delete/{id}", handler::deleteById))
+                .filter(new ReactiveExceptionFilter())
+                .build();
+    }
+}
@@ -0,0 +1 @@
+CREATE INDEX idx_spaceship_name_id ON spaceship (name, id);
\ No newline at end of file
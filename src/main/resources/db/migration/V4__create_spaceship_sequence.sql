@@ -0,0 +1 @@
+CREATE SEQUENCE spaceship_seq START WITH 100 INCREMENT BY 50;
\ No newline at end of file
@@ -0,0 +1 @@
+ALTER TABLE spaceship ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
\ No newline at end of file
@@ -0,0 +1,15 @@
+CREATE TABLE spaceship_change (
+    seq BIGINT PRIMARY KEY,
+    spaceship_id BIGINT NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    name VARCHAR(255),
+    version BIGINT,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE spaceship_change_head (
+    seq BIGINT NOT NULL,
+    pruned_through BIGINT NOT NULL
+);
+
+INSERT INTO spaceship_change_head (seq, pruned_through) VALUES (0, 0);
\ No newline at end of file
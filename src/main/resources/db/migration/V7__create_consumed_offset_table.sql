@@ -0,0 +1,4 @@
+CREATE TABLE consumed_offset (
+    topic_partition VARCHAR(255) PRIMARY KEY,
+    next_offset BIGINT NOT NULL
+);
\ No newline at end of file
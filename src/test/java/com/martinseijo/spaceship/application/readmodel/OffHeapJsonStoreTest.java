@@ -0,0 +1,90 @@
+package com.martinseijo.spaceship.application.readmodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapJsonStoreTest {
+
+    @Test
+    void testPutAndGet() {
+        OffHeapJsonStore store = new OffHeapJsonStore(16, 1024);
+        store.put(1L, json("Enterprise"));
+
+        assertThat(store.get(1L)).isEqualTo(json("Enterprise"));
+        assertThat(store.get(2L)).isNull();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testPutOverwritesValue() {
+        OffHeapJsonStore store = new OffHeapJsonStore(16, 1024);
+        store.put(1L, json("Enterprise"));
+        store.put(1L, json("Enterprise-D"));
+
+        assertThat(store.get(1L)).isEqualTo(json("Enterprise-D"));
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.dataBytes()).isEqualTo(json("Enterprise-D").length);
+    }
+
+    @Test
+    void testRemoveKeepsCollidingKeysReachable() {
+        OffHeapJsonStore store = new OffHeapJsonStore(16, 1024);
+        for (long id = 1; id <= 12; id++) {
+            store.put(id, json("Ship " + id));
+        }
+
+        assertThat(store.remove(5L)).isTrue();
+        assertThat(store.remove(5L)).isFalse();
+
+        assertThat(store.get(5L)).isNull();
+        for (long id = 1; id <= 12; id++) {
+            if (id != 5L) {
+                assertThat(store.get(id)).isEqualTo(json("Ship " + id));
+            }
+        }
+        assertThat(store.size()).isEqualTo(11);
+    }
+
+    @Test
+    void testGrowsTableAndCompactsData() {
+        OffHeapJsonStore store = new OffHeapJsonStore(16, 1024);
+        for (int round = 0; round < 3; round++) {
+            for (long id = 1; id <= 10_000; id++) {
+                store.put(id, json("Ship " + id + " v" + round));
+            }
+        }
+
+        assertThat(store.size()).isEqualTo(10_000);
+        assertThat(store.get(1L)).isEqualTo(json("Ship 1 v2"));
+        assertThat(store.get(10_000L)).isEqualTo(json("Ship 10000 v2"));
+    }
+
+    @Test
+    void testReadsLongPrefixAndRemainder() {
+        OffHeapJsonStore store = new OffHeapJsonStore(16, 1024);
+        byte[] json = json("Enterprise");
+        store.put(1L, ByteBuffer.allocate(Long.BYTES + json.length).putLong(7L).put(json).array());
+
+        assertThat(store.getLong(1L, -1L)).isEqualTo(7L);
+        assertThat(store.getLong(2L, -1L)).isEqualTo(-1L);
+        assertThat(store.get(1L, Long.BYTES)).isEqualTo(json);
+    }
+
+    @Test
+    void testRejectsNonPositiveKeys() {
+        OffHeapJsonStore store = new OffHeapJsonStore(16, 1024);
+
+        assertThatThrownBy(() -> store.put(0L, json("Nothing")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.get(0L)).isNull();
+    }
+
+    private static byte[] json(String name) {
+        return ("{\"name\":\"" + name + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package com.martinseijo.spaceship.application.readmodel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.application.service.SpaceshipWriteBehindBuffer;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SpaceshipReadModelTest {
+
+    private final SpaceshipRepository repository = mock(SpaceshipRepository.class);
+    private final SpaceshipWriteBehindBuffer writeBehind = mock(SpaceshipWriteBehindBuffer.class);
+    private SpaceshipReadModel readModel;
+
+    @BeforeEach
+    void setup() {
+        readModel = new SpaceshipReadModel(repository, Mappers.getMapper(SpaceshipMapper.class), mock(EntityManager.class),
+                new ObjectMapper(), writeBehind);
+        ReflectionTestUtils.setField(readModel, "enabled", true);
+        ReflectionTestUtils.setField(readModel, "initialCapacity", 16);
+    }
+
+    @Test
+    void testReplaysChangesCommittedWhileTheTableIsStreamed() {
+        when(repository.streamAll()).thenAnswer(invocation -> Stream.of(
+                new Spaceship(1L, "Enterprise", 0L),
+                new Spaceship(2L, "Voyager", 0L)
+        ).peek(spaceship -> {
+            if (spaceship.getId() == 2L) {
+                readModel.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 1L, "USS Enterprise", 1L));
+                readModel.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.DELETED, 2L, "Voyager", 0L));
+            }
+        }));
+
+        readModel.rebuild();
+
+        assertThat(json(1L)).contains("USS Enterprise");
+        assertThat(readModel.getVersion(1L)).isEqualTo(1L);
+        assertThat(readModel.get(2L)).isNull();
+    }
+
+    @Test
+    void testKeepsPatchingTheCurrentStoreWhileRebuilding() {
+        readModel.restore(Stream.of(new SpaceshipDTO(1L, "Enterprise", 0L)));
+        when(repository.streamAll()).thenAnswer(invocation -> {
+            readModel.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 1L, "USS Enterprise", 1L));
+            assertThat(json(1L)).contains("USS Enterprise");
+            throw new IllegalStateException("connection lost");
+        });
+
+        assertThatThrownBy(readModel::rebuild).isInstanceOf(IllegalStateException.class);
+        assertThat(json(1L)).contains("USS Enterprise");
+    }
+
+    @Test
+    void testDoesNotAnswerForIdsWithAPendingUpdate() {
+        readModel.restore(Stream.of(new SpaceshipDTO(1L, "Enterprise", 0L)));
+        when(writeBehind.pending(1L)).thenReturn(new SpaceshipDTO(1L, "USS Enterprise", 0L));
+
+        assertThat(readModel.get(1L)).isNull();
+        assertThat(readModel.getVersion(1L)).isNull();
+    }
+
+    @Test
+    void testIgnoresUpdatesOlderThanTheStoredVersion() {
+        readModel.restore(Stream.of(new SpaceshipDTO(1L, "Enterprise", 0L)));
+
+        readModel.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 1L, "Enterprise-E", 2L));
+        readModel.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 1L, "Enterprise-D", 1L));
+
+        assertThat(json(1L)).contains("Enterprise-E");
+        assertThat(readModel.getVersion(1L)).isEqualTo(2L);
+    }
+
+    @Test
+    void testLateUpdateDoesNotResurrectADeletedSpaceship() {
+        readModel.restore(Stream.of(new SpaceshipDTO(1L, "Enterprise", 0L)));
+
+        readModel.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.DELETED, 1L, "Enterprise-D", 1L));
+        readModel.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 1L, "Enterprise-D", 1L));
+
+        assertThat(readModel.get(1L)).isNull();
+    }
+
+    private String json(long id) {
+        return new String(readModel.get(id).json(), StandardCharsets.UTF_8);
+    }
+}
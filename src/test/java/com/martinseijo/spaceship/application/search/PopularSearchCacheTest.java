@@ -0,0 +1,108 @@
+package com.martinseijo.spaceship.application.search;
+
+import com.martinseijo.spaceship.application.dto.SearchMode;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PopularSearchCacheTest {
+
+    private final SpaceshipRepository repository = mock(SpaceshipRepository.class);
+
+    @Test
+    void testMaterializesAQueryOnceItIsPopular() {
+        PopularSearchCache cache = cache(4, 3, 100);
+        when(repository.findIdsByNameLike(eq("%falcon%"), any(Pageable.class))).thenReturn(List.of(7L, 2L));
+
+        assertThat(cache.lookup(filter("Falcon", SearchMode.CONTAINS))).isNull();
+        assertThat(cache.lookup(filter("Falcon", SearchMode.CONTAINS))).isNull();
+        assertThat(cache.lookup(filter("falcon", SearchMode.CONTAINS))).containsExactly(2L, 7L);
+        assertThat(cache.lookup(filter("FALCON", SearchMode.FUZZY))).containsExactly(2L, 7L);
+
+        verify(repository, times(1)).findIdsByNameLike(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void testAppliesChangesToMaterializedListsWithoutReloading() {
+        PopularSearchCache cache = cache(4, 1, 100);
+        when(repository.findIdsByNameLike(eq("enter%"), any(Pageable.class))).thenReturn(List.of(1L));
+        SpaceshipFilter enterprise = filter("Enter", SearchMode.PREFIX);
+        cache.lookup(enterprise);
+
+        cache.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.CREATED, 3L, "Enterprise-D", 0L));
+        cache.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.CREATED, 2L, "USS Enterprise", 0L));
+        assertThat(cache.lookup(enterprise)).containsExactly(1L, 3L);
+
+        cache.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 1L, "Voyager", 1L));
+        cache.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.DELETED, 3L, "Enterprise-D", 0L));
+        assertThat(cache.lookup(enterprise)).isEmpty();
+
+        verify(repository, times(1)).findIdsByNameLike(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void testLeavesBroadQueriesToTheDatabase() {
+        PopularSearchCache cache = cache(4, 1, 2);
+        when(repository.findIdsByNameLike(eq("%a%"), any(Pageable.class))).thenReturn(List.of(1L, 2L, 3L));
+
+        assertThat(cache.lookup(filter("a", SearchMode.CONTAINS))).isNull();
+        assertThat(cache.lookup(filter("a", SearchMode.CONTAINS))).isNull();
+
+        verify(repository, times(1)).findIdsByNameLike(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void testAMorePopularQueryDisplacesTheColdest() {
+        PopularSearchCache cache = cache(1, 1, 100);
+        when(repository.findIdsByNameLike(anyString(), any(Pageable.class))).thenReturn(List.of(1L));
+        SpaceshipFilter enterprise = filter("Enterprise", SearchMode.CONTAINS);
+        SpaceshipFilter voyager = filter("Voyager", SearchMode.CONTAINS);
+
+        cache.lookup(enterprise);
+        cache.lookup(enterprise);
+        assertThat(cache.lookup(voyager)).isNull();
+        assertThat(cache.lookup(voyager)).isNull();
+        assertThat(cache.lookup(voyager)).isNotNull();
+
+        assertThat(cache.hottest()).extracting(PopularSearchCache.PopularQuery::name).containsExactly("voyager");
+    }
+
+    @Test
+    void testRestoreMaterializesFromRecords() {
+        PopularSearchCache cache = cache(4, 3, 100);
+
+        cache.restore(List.of(new PopularSearchCache.PopularQuery("falcon", SearchMode.CONTAINS, 10)),
+                Stream.of(new SpaceshipDTO(1L, "Enterprise", 0L), new SpaceshipDTO(2L, "Millennium Falcon", 0L)));
+
+        assertThat(cache.lookup(filter("Falcon", SearchMode.CONTAINS))).containsExactly(2L);
+        verify(repository, never()).findIdsByNameLike(anyString(), any(Pageable.class));
+    }
+
+    private PopularSearchCache cache(int topK, int minHits, int maxIds) {
+        return new PopularSearchCache(repository, true, topK, minHits, maxIds, 64, 4);
+    }
+
+    private static SpaceshipFilter filter(String name, SearchMode mode) {
+        SpaceshipFilter filter = new SpaceshipFilter();
+        filter.setName(name);
+        filter.setMode(mode);
+        return filter;
+    }
+}
@@ -0,0 +1,124 @@
+package com.martinseijo.spaceship.application.search;
+
+import com.martinseijo.spaceship.application.dto.SearchMode;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SpaceshipNameIndexTest {
+
+    private final SpaceshipRepository repository = mock(SpaceshipRepository.class);
+    private SpaceshipNameIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new SpaceshipNameIndex(repository, mock(EntityManager.class));
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.put(1L, "Millennium Falcon");
+        index.put(2L, "USS Enterprise");
+        index.put(3L, "Enterprise");
+        index.put(4L, "X-Wing Starfighter");
+    }
+
+    @Test
+    void testContainsOrdersByRelevance() {
+        assertThat(index.search("enterprise", SearchMode.CONTAINS)).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void testContainsWithShortQueryFallsBackToScan() {
+        assertThat(index.search("X", SearchMode.CONTAINS)).containsExactly(4L);
+    }
+
+    @Test
+    void testWhitespaceInTheQueryIsMatchedAsIs() {
+        assertThat(index.search(" enterprise", SearchMode.CONTAINS)).containsExactly(2L);
+        assertThat(index.search(" wing", SearchMode.CONTAINS)).isEmpty();
+    }
+
+    @Test
+    void testPrefix() {
+        assertThat(index.search("ent", SearchMode.PREFIX)).containsExactly(3L);
+    }
+
+    @Test
+    void testFuzzyToleratesTypos() {
+        assertThat(index.search("Millenium Falcon", SearchMode.FUZZY)).startsWith(1L);
+    }
+
+    @Test
+    void testBlankQueryMatchesEverything() {
+        assertThat(index.search(null, SearchMode.CONTAINS)).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void testChangesKeepIndexUpToDate() {
+        index.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 3L, "Voyager"));
+        index.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.DELETED, 2L, "USS Enterprise"));
+        index.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.CREATED, 5L, "Enterprise NX-01"));
+
+        assertThat(index.search("enterprise", SearchMode.CONTAINS)).containsExactly(5L);
+        assertThat(index.search("voyager", SearchMode.CONTAINS)).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void testIgnoresRenamesOlderThanTheIndexedVersion() {
+        index.put(5L, "Defiant", 2L);
+
+        index.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 5L, "Valiant", 1L));
+
+        assertThat(index.search("defiant", SearchMode.CONTAINS)).containsExactly(5L);
+        assertThat(index.search("valiant", SearchMode.CONTAINS)).isEmpty();
+    }
+
+    @Test
+    void testLateRenameDoesNotResurrectADeletedSpaceship() {
+        index.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.DELETED, 3L, "Enterprise-D", 1L));
+        index.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 3L, "Enterprise-D", 1L));
+
+        assertThat(index.search("enterprise", SearchMode.CONTAINS)).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testIsReadyOnlyOnceLoaded() {
+        assertThat(index.isReady()).isFalse();
+
+        when(repository.streamAll()).thenReturn(Stream.empty());
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+    }
+
+    @Test
+    void testRebuildReplaysChangesCommittedWhileStreaming() {
+        when(repository.streamAll()).thenAnswer(invocation -> Stream.of(
+                new Spaceship(1L, "Millennium Falcon", 0L),
+                new Spaceship(2L, "USS Enterprise", 0L)
+        ).peek(spaceship -> {
+            if (spaceship.getId() == 2L) {
+                index.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 1L, "Ghost"));
+                index.onSpaceshipChanged(new SpaceshipChangedEvent(SpaceshipChangeType.DELETED, 2L, "USS Enterprise"));
+            }
+        }));
+
+        index.rebuild();
+
+        assertThat(index.search("falcon", SearchMode.CONTAINS)).isEmpty();
+        assertThat(index.search("ghost", SearchMode.CONTAINS)).containsExactly(1L);
+        assertThat(index.search("enterprise", SearchMode.CONTAINS)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,166 @@
+package com.martinseijo.spaceship.application.service;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.domain.exception.ServiceOverloadedException;
+import com.martinseijo.spaceship.domain.model.SpaceshipView;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SpaceshipBatchLoaderTest {
+
+    private final SpaceshipRepository repository = mock(SpaceshipRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SpaceshipBatchLoader loader;
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testConcurrentLookupsShareOneQuery() throws Exception {
+        loader = loader(100, Duration.ofMillis(50));
+        when(repository.findViewsByIds(any())).thenAnswer(invocation -> found((Collection<Long>) invocation.getArgument(0)));
+
+        List<CompletableFuture<SpaceshipDTO>> futures = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            futures.add(loader.loadAsync(id));
+            futures.add(loader.loadAsync(id));
+        }
+        futures.add(loader.loadAsync(404L));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(futures.get(i).get(1, TimeUnit.SECONDS).getId()).isEqualTo(i / 2 + 1L);
+        }
+        assertThat(futures.get(20).get(1, TimeUnit.SECONDS)).isNull();
+        verify(repository, times(1)).findViewsByIds(any());
+        assertThat(meterRegistry.get("spaceship.batch-loader.batch.size").summary().max()).isEqualTo(11);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFullBatchIsDispatchedBeforeTheWindowCloses() throws Exception {
+        loader = loader(2, Duration.ofHours(1));
+        when(repository.findViewsByIds(any())).thenAnswer(invocation -> found((Collection<Long>) invocation.getArgument(0)));
+
+        CompletableFuture<SpaceshipDTO> first = loader.loadAsync(1L);
+        CompletableFuture<SpaceshipDTO> second = loader.loadAsync(2L);
+
+        assertThat(first.get(1, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+        assertThat(second.get(1, TimeUnit.SECONDS).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void testFailedQueryFailsEveryCaller() {
+        loader = loader(100, Duration.ofMillis(1));
+        when(repository.findViewsByIds(any())).thenThrow(new IllegalStateException("Database unavailable"));
+
+        CompletableFuture<SpaceshipDTO> future = loader.loadAsync(1L);
+
+        assertThat(future).failsWithin(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchesBeyondTheQueueFailAsOverloaded() throws Exception {
+        loader = new SpaceshipBatchLoader(repository, Mappers.getMapper(SpaceshipMapper.class), meterRegistry, true, 1, Duration.ofHours(1), Duration.ofSeconds(5), 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findViewsByIds(any())).thenAnswer(invocation -> {
+            release.await();
+            return found((Collection<Long>) invocation.getArgument(0));
+        });
+
+        CompletableFuture<SpaceshipDTO> running = loader.loadAsync(1L);
+        CompletableFuture<SpaceshipDTO> queued = loader.loadAsync(2L);
+        CompletableFuture<SpaceshipDTO> rejected = loader.loadAsync(3L);
+
+        assertThat(rejected).failsWithin(1, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(ServiceOverloadedException.class);
+        release.countDown();
+        assertThat(running.get(1, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+        assertThat(queued.get(1, TimeUnit.SECONDS).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testQueuedBatchWhoseCallersGaveUpIsNotQueried() throws Exception {
+        loader = new SpaceshipBatchLoader(repository, Mappers.getMapper(SpaceshipMapper.class), meterRegistry, true, 1, Duration.ofHours(1), Duration.ofSeconds(5), 1, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findViewsByIds(any())).thenAnswer(invocation -> {
+            release.await();
+            return found((Collection<Long>) invocation.getArgument(0));
+        });
+
+        CompletableFuture<SpaceshipDTO> running = loader.loadAsync(1L);
+        loader.loadAsync(2L).cancel(false);
+        release.countDown();
+        assertThat(running.get(1, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+        assertThat(loader.loadAsync(3L).get(1, TimeUnit.SECONDS).getId()).isEqualTo(3L);
+
+        verify(repository, times(2)).findViewsByIds(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testQueuedBatchWhoseCallersTimedOutIsNotQueried() throws Exception {
+        loader = new SpaceshipBatchLoader(repository, Mappers.getMapper(SpaceshipMapper.class), meterRegistry, true, 1, Duration.ofHours(1), Duration.ofMillis(50), 1, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findViewsByIds(any())).thenAnswer(invocation -> {
+            release.await();
+            return found((Collection<Long>) invocation.getArgument(0));
+        });
+
+        CompletableFuture<SpaceshipDTO> running = loader.loadAsync(1L);
+        assertThatThrownBy(() -> loader.load(2L)).isInstanceOf(ServiceOverloadedException.class);
+        release.countDown();
+        assertThat(running.get(1, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+        assertThat(loader.loadAsync(3L).get(1, TimeUnit.SECONDS).getId()).isEqualTo(3L);
+
+        verify(repository, times(2)).findViewsByIds(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCancellingOneCallerKeepsTheSharedLookupForTheOthers() throws Exception {
+        loader = loader(100, Duration.ofMillis(50));
+        when(repository.findViewsByIds(any())).thenAnswer(invocation -> found((Collection<Long>) invocation.getArgument(0)));
+
+        CompletableFuture<SpaceshipDTO> abandoned = loader.loadAsync(1L);
+        CompletableFuture<SpaceshipDTO> waiting = loader.loadAsync(1L);
+        abandoned.cancel(false);
+
+        assertThat(waiting.get(1, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+        verify(repository, times(1)).findViewsByIds(any());
+    }
+
+    private SpaceshipBatchLoader loader(int maxBatchSize, Duration window) {
+        return new SpaceshipBatchLoader(repository, Mappers.getMapper(SpaceshipMapper.class), meterRegistry, true, maxBatchSize, window, Duration.ofSeconds(5), 2, 100);
+    }
+
+    private static List<SpaceshipView> found(Collection<Long> ids) {
+        return ids.stream()
+                .filter(id -> id < 100)
+                .map(id -> new SpaceshipView(id, "Ship " + id, 0L))
+                .toList();
+    }
+}
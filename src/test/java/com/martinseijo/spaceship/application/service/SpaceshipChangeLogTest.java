@@ -0,0 +1,58 @@
+package com.martinseijo.spaceship.application.service;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipChangeDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipChangePage;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.exception.ChangeFeedExpiredException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spaceship.changes.retention=PT0S")
+class SpaceshipChangeLogTest {
+
+    @Autowired
+    private SpaceshipChangeLog changeLog;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testLogsOnlyCommittedChangesInOrderAndPrunes() {
+        long head = changeLog.getChanges(null, 1).getNextSince();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new SpaceshipChangedEvent(SpaceshipChangeType.CREATED, 1000L, "Voyager", 0L));
+            eventPublisher.publishEvent(new SpaceshipChangedEvent(SpaceshipChangeType.UPDATED, 1000L, "USS Voyager", 1L));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new SpaceshipChangedEvent(SpaceshipChangeType.DELETED, 1000L, "USS Voyager", 1L));
+            status.setRollbackOnly();
+        });
+        eventPublisher.publishEvent(new SpaceshipChangedEvent(SpaceshipChangeType.DELETED, 1000L, "USS Voyager", 1L));
+
+        SpaceshipChangePage page = changeLog.getChanges(head, 10);
+        assertThat(page.getChanges()).extracting(SpaceshipChangeDTO::getSeq).containsExactly(head + 1, head + 2);
+        assertThat(page.getChanges()).extracting(SpaceshipChangeDTO::getType)
+                .containsExactly(SpaceshipChangeType.CREATED, SpaceshipChangeType.UPDATED);
+        assertThat(page.getChanges().get(1).getName()).isEqualTo("USS Voyager");
+        assertThat(page.getNextSince()).isEqualTo(head + 2);
+        assertThat(page.isHasMore()).isFalse();
+
+        changeLog.prune();
+
+        assertThatThrownBy(() -> changeLog.getChanges(head, 10))
+                .isInstanceOf(ChangeFeedExpiredException.class);
+        assertThat(changeLog.getChanges(head + 2, 10).getChanges()).isEmpty();
+        assertThat(changeLog.getChanges(null, 1).getNextSince()).isEqualTo(head + 2);
+    }
+}
@@ -0,0 +1,150 @@
+package com.martinseijo.spaceship.application.service;
+
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.search.SpaceshipNameIndex;
+import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements each service call sends against the spaceship table, so an N+1, a
+ * redundant select before a write or a lazy load sneaking back in fails the build.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.martinseijo.spaceship.application.service.SpaceshipServiceImplQueryTest$RecordingStatementInspector")
+class SpaceshipServiceImplQueryTest {
+
+    @Autowired
+    private SpaceshipServiceImpl spaceshipService;
+
+    @Autowired
+    private SpaceshipRepository repository;
+
+    @Autowired
+    private SpaceshipNameIndex nameIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        for (String name : List.of("Enterprise", "Voyager", "Serenity")) {
+            ids.add(repository.save(new Spaceship(null, name)).getId());
+        }
+        nameIndex.rebuild();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        RecordingStatementInspector.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RecordingStatementInspector.stop();
+        ids.clear();
+    }
+
+    @Test
+    void testReadsIssueOneQueryEach() throws ResourceNotFoundException {
+        assertThat(spaceshipService.getAllSpaceships()).hasSize(3);
+        assertStatements("select");
+
+        assertThat(spaceshipService.getAllSpaceshipsPaginated(PageRequest.of(0, 2)).getTotalElements()).isEqualTo(3);
+        assertStatements("select", "select");
+
+        assertThat(spaceshipService.getSpaceshipsScroll(null, 2, ScrollOrder.NAME).getContent()).hasSize(2);
+        assertStatements("select");
+
+        SpaceshipFilter filter = new SpaceshipFilter();
+        filter.setName("Serenity");
+        assertThat(spaceshipService.getSpaceshipsByFilter(filter, PageRequest.of(0, 10)).getContent()).hasSize(1);
+        assertStatements("select");
+
+        assertThat(spaceshipService.getById(ids.get(0)).getName()).isEqualTo("Enterprise");
+        assertStatements("select");
+        spaceshipService.getById(ids.get(0));
+        assertStatements();
+
+        assertThat(spaceshipService.getByIds(ids)).hasSize(3);
+        assertStatements("select");
+
+        List<SpaceshipDTO> exported = new ArrayList<>();
+        spaceshipService.exportAll(exported::add);
+        assertThat(exported).hasSize(3);
+        assertStatements("select");
+    }
+
+    @Test
+    void testWritesIssueOneStatementPerMutation() throws ResourceNotFoundException {
+        SpaceshipDTO created = spaceshipService.create(new SpaceshipDTO(null, "Millennium Falcon", null));
+        assertStatements("insert");
+
+        SpaceshipDTO renamed = spaceshipService.update(new SpaceshipDTO(created.getId(), "Falcon", created.getVersion()));
+        assertThat(renamed.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertStatements("update");
+
+        spaceshipService.update(new SpaceshipDTO(created.getId(), "The Falcon", null));
+        assertStatements("select", "update");
+
+        assertThat(spaceshipService.delete(created.getId()).getName()).isEqualTo("The Falcon");
+        assertStatements("select", "delete");
+        assertThat(repository.findById(created.getId())).isEmpty();
+    }
+
+    private static void assertStatements(String... expected) {
+        assertThat(RecordingStatementInspector.drain()).containsExactly(expected);
+    }
+
+    /**
+     * Records the leading keyword of every statement touching the spaceship table that is
+     * prepared on the test thread, leaving out the change log and the id sequence.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final Pattern SPACESHIP_TABLE = Pattern.compile("\\bspaceship\\b", Pattern.CASE_INSENSITIVE);
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        private static volatile Thread recording;
+
+        static void start() {
+            STATEMENTS.clear();
+            recording = Thread.currentThread();
+        }
+
+        static void stop() {
+            recording = null;
+        }
+
+        static List<String> drain() {
+            List<String> statements = List.copyOf(STATEMENTS);
+            STATEMENTS.clear();
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == recording && SPACESHIP_TABLE.matcher(sql).find()) {
+                STATEMENTS.add(sql.trim().split("\\s+", 2)[0].toLowerCase(Locale.ROOT));
+            }
+            return sql;
+        }
+    }
+}
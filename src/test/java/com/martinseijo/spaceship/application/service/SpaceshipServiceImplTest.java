@@ -1,34 +1,68 @@
 package com.martinseijo.spaceship.application.service;
 
+import com.martinseijo.spaceship.application.cache.CacheNames;
+import com.martinseijo.spaceship.application.cache.NativeCaches;
+import com.martinseijo.spaceship.application.dto.BatchItemResult;
+import com.martinseijo.spaceship.application.dto.BatchItemStatus;
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.CountStrategy;
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
 import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
 import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.dto.SpaceshipLookup;
+import com.martinseijo.spaceship.application.dto.SpaceshipSlice;
 import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.application.search.SpaceshipNameIndex;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.exception.InvalidInputException;
 import com.martinseijo.spaceship.domain.exception.InvalidSpaceshipException;
 import com.martinseijo.spaceship.domain.exception.PaginationException;
 import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.exception.VersionConflictException;
 import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.model.SpaceshipView;
 import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.instancio.Instancio;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
+@RecordApplicationEvents
 class SpaceshipServiceImplTest {
 
     @Autowired
@@ -37,72 +71,213 @@ class SpaceshipServiceImplTest {
     @MockitoBean
     private SpaceshipRepository repository;
 
+    @MockitoBean
+    private SpaceshipWriteBehindBuffer writeBehind;
+
     @Spy
     private SpaceshipMapper spaceshipMapper;
 
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private SpaceshipNameIndex nameIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
     @Test
     void testGetAllSpaceships() {
-        Spaceship spaceship1 = Instancio.create(Spaceship.class);
-        Spaceship spaceship2 = Instancio.create(Spaceship.class);
-        List<Spaceship> spaceships = List.of(spaceship1, spaceship2);
+        SpaceshipView spaceship1 = Instancio.create(SpaceshipView.class);
+        SpaceshipView spaceship2 = Instancio.create(SpaceshipView.class);
+        List<SpaceshipView> spaceships = List.of(spaceship1, spaceship2);
 
-        when(repository.findAll()).thenReturn(spaceships);
+        when(repository.findAllViews()).thenReturn(spaceships);
 
         List<SpaceshipDTO> result = spaceshipService.getAllSpaceships();
 
         assertThat(result).hasSize(2);
-        assertThat(result.get(0).getName()).isEqualTo(spaceship1.getName());
-        assertThat(result.get(0).getId()).isEqualTo(spaceship1.getId());
-        assertThat(result.get(1).getName()).isEqualTo(spaceship2.getName());
-        assertThat(result.get(1).getId()).isEqualTo(spaceship2.getId());
+        assertThat(result.get(0).getName()).isEqualTo(spaceship1.name());
+        assertThat(result.get(0).getId()).isEqualTo(spaceship1.id());
+        assertThat(result.get(1).getName()).isEqualTo(spaceship2.name());
+        assertThat(result.get(1).getId()).isEqualTo(spaceship2.id());
+    }
+
+    @Test
+    void testGetAllSpaceshipsRecordsLatency() {
+        when(repository.findAllViews()).thenReturn(List.of(Instancio.create(SpaceshipView.class)));
+
+        spaceshipService.getAllSpaceships();
+
+        Timer serviceTimer = meterRegistry.find("spaceship.method")
+                .tags("layer", "service", "method", "getAllSpaceships", "outcome", "success").timer();
+        assertThat(serviceTimer).isNotNull();
+        assertThat(serviceTimer.count()).isPositive();
+    }
+
+    @Test
+    void testExportAll() {
+        SpaceshipView spaceship1 = Instancio.create(SpaceshipView.class);
+        SpaceshipView spaceship2 = Instancio.create(SpaceshipView.class);
+
+        when(repository.streamAllViews()).thenReturn(Stream.of(spaceship1, spaceship2));
+
+        List<SpaceshipDTO> exported = new ArrayList<>();
+        spaceshipService.exportAll(exported::add);
+
+        assertThat(exported).hasSize(2);
+        assertThat(exported.get(0).getId()).isEqualTo(spaceship1.id());
+        assertThat(exported.get(1).getName()).isEqualTo(spaceship2.name());
+        verify(repository, never()).findAllViews();
+        verify(repository, never()).streamAll();
     }
 
     @Test
     void testGetAllSpaceshipsPaginated() {
         Pageable pageable = PageRequest.of(0, 2);
-        Spaceship spaceship1 = Instancio.create(Spaceship.class);
-        Spaceship spaceship2 = Instancio.create(Spaceship.class);
-        List<Spaceship> spaceships = List.of(spaceship1, spaceship2);
+        SpaceshipView spaceship1 = Instancio.create(SpaceshipView.class);
+        SpaceshipView spaceship2 = Instancio.create(SpaceshipView.class);
+        List<SpaceshipView> spaceships = List.of(spaceship1, spaceship2);
 
-        Page<Spaceship> spaceshipPage = new PageImpl<>(spaceships, pageable, 2);
+        Page<SpaceshipView> spaceshipPage = new PageImpl<>(spaceships, pageable, 2);
 
-        when(repository.findAll(pageable)).thenReturn(spaceshipPage);
+        when(repository.findAllViews(pageable)).thenReturn(spaceshipPage);
 
         Page<SpaceshipDTO> result = spaceshipService.getAllSpaceshipsPaginated(pageable);
         List<SpaceshipDTO> spaceshipsResult = result.stream().toList();
 
         assertThat(result.getTotalElements()).isEqualTo(spaceships.size());
-        assertThat(spaceshipsResult.get(0).getId()).isEqualTo(spaceships.get(0).getId());
-        assertThat(spaceshipsResult.get(0).getName()).isEqualTo(spaceships.get(0).getName());
-        assertThat(spaceshipsResult.get(1).getId()).isEqualTo(spaceships.get(1).getId());
-        assertThat(spaceshipsResult.get(1).getName()).isEqualTo(spaceships.get(1).getName());
+        assertThat(spaceshipsResult.get(0).getId()).isEqualTo(spaceships.get(0).id());
+        assertThat(spaceshipsResult.get(0).getName()).isEqualTo(spaceships.get(0).name());
+        assertThat(spaceshipsResult.get(1).getId()).isEqualTo(spaceships.get(1).id());
+        assertThat(spaceshipsResult.get(1).getName()).isEqualTo(spaceships.get(1).name());
     }
 
     @Test
     void testGetAllSpaceshipsPaginated_Exception() {
         Pageable pageable = PageRequest.of(0, 2);
 
-        when(repository.findAll(pageable)).thenThrow(new RuntimeException("Database error"));
+        when(repository.findAllViews(pageable)).thenThrow(new RuntimeException("Database error"));
 
         assertThatThrownBy(() -> spaceshipService.getAllSpaceshipsPaginated(pageable))
                 .isInstanceOf(PaginationException.class)
                 .hasMessageContaining("Error retrieving paginated spaceships");
     }
 
+    @Test
+    void testGetByIdLoadsOncePerKeyUnderConcurrency() throws Exception {
+        SpaceshipView spaceship = new SpaceshipView(7L, "Serenity", 0L);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findViewById(7L)).thenAnswer(invocation -> {
+            release.await(1, TimeUnit.SECONDS);
+            return Optional.of(spaceship);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<SpaceshipDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> spaceshipService.getById(7L)));
+            }
+            release.countDown();
+            for (Future<SpaceshipDTO> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Serenity");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(repository, times(1)).findViewById(7L);
+    }
+
+    @Test
+    void testGetSpaceshipsScroll() {
+        SpaceshipView spaceship1 = new SpaceshipView(1L, "Enterprise", 0L);
+        SpaceshipView spaceship2 = new SpaceshipView(2L, "Voyager", 0L);
+        when(repository.findViewsAfterId(Long.MIN_VALUE, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(spaceship1, spaceship2), PageRequest.of(0, 2), true));
+        when(repository.findViewsAfterId(2L, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 2), false));
+
+        SpaceshipSlice firstPage = spaceshipService.getSpaceshipsScroll(null, 2, ScrollOrder.ID);
+        SpaceshipSlice secondPage = spaceshipService.getSpaceshipsScroll(firstPage.getNextCursor(), 2, ScrollOrder.ID);
+
+        assertThat(firstPage.getContent()).hasSize(2);
+        assertThat(firstPage.isHasNext()).isTrue();
+        assertThat(secondPage.getContent()).isEmpty();
+        assertThat(secondPage.getNextCursor()).isNull();
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void testGetSpaceshipsScrollKeepsTheOrderOfTheCursor() {
+        when(repository.findViewsOrderByNameAndId(PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(new SpaceshipView(2L, "Enterprise", 0L)), PageRequest.of(0, 1), true));
+        when(repository.findViewsAfterNameAndId("Enterprise", 2L, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(new SpaceshipView(1L, "Voyager", 0L)), PageRequest.of(0, 1), false));
+
+        String cursor = spaceshipService.getSpaceshipsScroll(null, 1, ScrollOrder.NAME).getNextCursor();
+
+        assertThat(spaceshipService.getSpaceshipsScroll(cursor, 1, null).getContent())
+                .extracting(SpaceshipDTO::getName)
+                .containsExactly("Voyager");
+        assertThatThrownBy(() -> spaceshipService.getSpaceshipsScroll(cursor, 1, ScrollOrder.ID))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("does not match the cursor");
+        verify(repository, never()).findViewsAfterId(anyLong(), any());
+    }
+
+    @Test
+    void testGetSpaceshipsScrollWithInvalidCursor() {
+        assertThatThrownBy(() -> spaceshipService.getSpaceshipsScroll("%%%", 2, ScrollOrder.ID))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("Invalid pagination cursor");
+    }
+
     @Test
     void testGetByIdCaching() throws ResourceNotFoundException {
-        Spaceship spaceship = new Spaceship();
-        spaceship.setId(1L);
-        when(repository.findById(1L)).thenReturn(Optional.of(spaceship));
+        when(repository.findViewById(1L)).thenReturn(Optional.of(new SpaceshipView(1L, "Enterprise", 0L)));
 
         SpaceshipDTO firstCall = spaceshipService.getById(1L);
         SpaceshipDTO secondCall = spaceshipService.getById(1L);
 
         assertThat(firstCall).isEqualTo(secondCall);
-        verify(repository, times(1)).findById(1L);
+        verify(repository, times(1)).findViewById(1L);
+    }
+
+    @Test
+    void testGetByIdsServesHitsFromCacheAndQueriesMissesOnce() throws ResourceNotFoundException {
+        when(repository.findViewById(1L)).thenReturn(Optional.of(new SpaceshipView(1L, "Enterprise", 0L)));
+        when(repository.findViewsByIds(List.of(2L, 404L))).thenReturn(List.of(new SpaceshipView(2L, "Voyager", 0L)));
+        spaceshipService.getById(1L);
+
+        List<SpaceshipLookup> result = spaceshipService.getByIds(Arrays.asList(2L, 1L, 404L, 2L, null));
+
+        assertThat(result).extracting(SpaceshipLookup::getId).containsExactly(2L, 1L, 404L, 2L, null);
+        assertThat(result).extracting(SpaceshipLookup::isFound).containsExactly(true, true, false, true, false);
+        assertThat(result.get(1).getSpaceship().getName()).isEqualTo("Enterprise");
+        assertThat(result.get(2).getSpaceship()).isNull();
+        verify(repository, times(1)).findViewsByIds(List.of(2L, 404L));
+
+        assertThat(spaceshipService.getById(2L).getName()).isEqualTo("Voyager");
+        verify(repository, never()).findViewById(2L);
+    }
+
+    @Test
+    void testGetByIdsWithTooManyIds() {
+        List<Long> ids = Collections.nCopies(1001, 1L);
+
+        assertThatThrownBy(() -> spaceshipService.getByIds(ids))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("Cannot look up more than 1000 spaceships");
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -110,12 +285,109 @@ class SpaceshipServiceImplTest {
         SpaceshipFilter filter = new SpaceshipFilter();
         filter.setName("Enterprise");
         Pageable pageable = PageRequest.of(0, 2);
-        when(repository.findByNameContainingIgnoreCase("Enterprise", pageable)).thenReturn(new PageImpl<>(Collections.singletonList(new Spaceship())));
+        Spaceship spaceship = new Spaceship(1L, "USS Enterprise");
+        when(repository.streamAll()).thenReturn(Stream.of(spaceship, new Spaceship(2L, "Serenity")));
+        nameIndex.rebuild();
+        when(repository.findViewsByIds(List.of(1L))).thenReturn(List.of(new SpaceshipView(1L, "USS Enterprise", 0L)));
 
         Page<SpaceshipDTO> result = spaceshipService.getSpaceshipsByFilter(filter, pageable);
 
         assertThat(result).isNotEmpty();
-        verify(repository, times(1)).findByNameContainingIgnoreCase("Enterprise", pageable);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().get(0).getName()).isEqualTo("USS Enterprise");
+        verify(repository, times(1)).findViewsByIds(List.of(1L));
+        verify(repository, never()).findViewsByNameLike(any(), any());
+    }
+
+    @Test
+    void testSortedSearchGoesToTheDatabase() {
+        SpaceshipFilter filter = new SpaceshipFilter();
+        filter.setName("Enterprise");
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("name"));
+        when(repository.streamAll()).thenReturn(Stream.of(new Spaceship(1L, "USS Enterprise")));
+        nameIndex.rebuild();
+        Page<SpaceshipView> sorted = new PageImpl<>(List.of(new SpaceshipView(1L, "USS Enterprise", 0L)), pageable, 1);
+        when(repository.findViewsByNameLike(filter.likePattern(), pageable)).thenReturn(sorted);
+
+        assertThat(spaceshipService.getSpaceshipsByFilter(filter, pageable)).containsExactly(new SpaceshipDTO(1L, "USS Enterprise", 0L));
+        verify(repository, never()).findViewsByIds(any());
+    }
+
+    @Test
+    void testPaginatedWithoutCountReturnsASlice() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(repository.sliceAllViews(pageable)).thenReturn(new SliceImpl<>(Instancio.ofList(SpaceshipView.class).size(2).create(), pageable, true));
+
+        Slice<SpaceshipDTO> result = spaceshipService.getAllSpaceshipsPaginated(pageable, CountStrategy.NONE);
+
+        assertThat(result).isNotInstanceOf(Page.class);
+        assertThat(result.hasNext()).isTrue();
+        verify(repository, never()).findAllViews(pageable);
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void testPaginatedWithCachedCountCountsOnce() {
+        when(repository.sliceAllViews(any())).thenAnswer(invocation -> new SliceImpl<>(
+                Instancio.ofList(SpaceshipView.class).size(2).create(), invocation.getArgument(0), true));
+        when(repository.count()).thenReturn(10L);
+
+        Slice<SpaceshipDTO> first = spaceshipService.getAllSpaceshipsPaginated(PageRequest.of(0, 2), CountStrategy.CACHED);
+        Slice<SpaceshipDTO> second = spaceshipService.getAllSpaceshipsPaginated(PageRequest.of(1, 2), CountStrategy.CACHED);
+
+        assertThat(((Page<SpaceshipDTO>) first).getTotalElements()).isEqualTo(10);
+        assertThat(((Page<SpaceshipDTO>) second).getTotalElements()).isEqualTo(10);
+        verify(repository, times(1)).count();
+    }
+
+    @Test
+    void testPaginatedWithEstimatedCountUsesTableStatistics() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(repository.sliceAllViews(pageable)).thenReturn(new SliceImpl<>(Instancio.ofList(SpaceshipView.class).size(2).create(), pageable, true));
+        when(repository.estimateCount()).thenReturn(42L);
+
+        Slice<SpaceshipDTO> result = spaceshipService.getAllSpaceshipsPaginated(pageable, CountStrategy.ESTIMATED);
+
+        assertThat(((Page<SpaceshipDTO>) result).getTotalElements()).isEqualTo(42);
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void testPaginatedLastPageHasExactTotalWithoutCounting() {
+        Pageable pageable = PageRequest.of(1, 2);
+        when(repository.sliceAllViews(pageable)).thenReturn(new SliceImpl<>(List.of(Instancio.create(SpaceshipView.class)), pageable, false));
+
+        Slice<SpaceshipDTO> result = spaceshipService.getAllSpaceshipsPaginated(pageable, CountStrategy.ESTIMATED);
+
+        assertThat(((Page<SpaceshipDTO>) result).getTotalElements()).isEqualTo(3);
+        verify(repository, never()).estimateCount();
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void testGetAllSpaceshipsPaginatedCaching() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(repository.findAllViews(pageable)).thenReturn(new PageImpl<>(List.of(Instancio.create(SpaceshipView.class)), pageable, 1));
+
+        spaceshipService.getAllSpaceshipsPaginated(pageable);
+        spaceshipService.getAllSpaceshipsPaginated(pageable);
+
+        verify(repository, times(1)).findAllViews(pageable);
+    }
+
+    @Test
+    void testCreateEvictsListCaches() {
+        Spaceship spaceship = Instancio.create(Spaceship.class);
+        when(repository.findAllViews()).thenReturn(List.of(Instancio.create(SpaceshipView.class)));
+        when(repository.save(any(Spaceship.class))).thenReturn(spaceship);
+
+        spaceshipService.getAllSpaceships();
+        SpaceshipDTO dto = new SpaceshipDTO();
+        dto.setName("Voyager");
+        spaceshipService.create(dto);
+        spaceshipService.getAllSpaceships();
+
+        verify(repository, times(2)).findAllViews();
     }
 
     @Test
@@ -123,8 +395,10 @@ class SpaceshipServiceImplTest {
         SpaceshipFilter filter = new SpaceshipFilter();
         filter.setName("Enterprise");
         Pageable pageable = PageRequest.of(0, 2);
+        when(repository.streamAll()).thenReturn(Stream.of(new Spaceship(1L, "Enterprise")));
+        nameIndex.rebuild();
 
-        when(repository.findAll(pageable)).thenThrow(new RuntimeException("Database error"));
+        when(repository.findViewsByIds(any())).thenThrow(new RuntimeException("Database error"));
 
         assertThatThrownBy(() -> spaceshipService.getSpaceshipsByFilter(filter, pageable))
                 .isInstanceOf(PaginationException.class)
@@ -170,65 +444,187 @@ class SpaceshipServiceImplTest {
         SpaceshipDTO dto = new SpaceshipDTO();
         dto.setId(1L);
         dto.setName("Enterprise");
-        Spaceship spaceship = new Spaceship();
-        spaceship.setId(1L);
-        when(repository.findById(1L)).thenReturn(Optional.of(spaceship));
-        when(repository.save(any(Spaceship.class))).thenReturn(spaceship);
+        when(repository.findViewById(1L)).thenReturn(Optional.of(new SpaceshipView(1L, "Voyager", 0L)));
+        when(repository.updateName(1L, "Enterprise", 0L)).thenReturn(1);
 
         SpaceshipDTO result = spaceshipService.update(dto);
 
         assertThat(result.getName()).isEqualTo("Enterprise");
-        verify(repository, times(1)).findById(1L);
-        verify(repository, times(1)).save(any(Spaceship.class));
+        assertThat(result.getVersion()).isEqualTo(1L);
+        verify(repository, times(1)).findViewById(1L);
+        verify(repository, times(1)).updateName(1L, "Enterprise", 0L);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void testConditionalUpdateIsASingleStatement() throws ResourceNotFoundException {
+        SpaceshipDTO dto = new SpaceshipDTO(1L, "Enterprise", 2L);
+        when(repository.updateName(1L, "Enterprise", 2L)).thenReturn(1);
+
+        SpaceshipDTO result = spaceshipService.update(dto);
+
+        assertThat(result.getVersion()).isEqualTo(3L);
+        verify(repository, times(1)).updateName(1L, "Enterprise", 2L);
+        verify(repository, never()).findViewById(any());
     }
 
     @Test
     void testUpdateWithOutName() throws ResourceNotFoundException {
         SpaceshipDTO dto = new SpaceshipDTO();
         dto.setId(1L);
-        Spaceship spaceship = new Spaceship();
-        spaceship.setId(1L);
-        spaceship.setName("Enterprise");
-        when(repository.findById(1L)).thenReturn(Optional.of(spaceship));
-        when(repository.save(any(Spaceship.class))).thenReturn(spaceship);
+        when(repository.findViewById(1L)).thenReturn(Optional.of(new SpaceshipView(1L, "Enterprise", 0L)));
 
         SpaceshipDTO result = spaceshipService.update(dto);
 
         assertThat(result.getName()).isEqualTo("Enterprise");
-        verify(repository, times(1)).findById(1L);
-        verify(repository, times(1)).save(any(Spaceship.class));
+        verify(repository, times(1)).findViewById(1L);
+        verify(repository, never()).updateName(any(), any(), any());
+    }
+
+    @Test
+    void testUpdateWithStaleVersion() {
+        SpaceshipDTO dto = new SpaceshipDTO();
+        dto.setId(1L);
+        dto.setName("Enterprise");
+        dto.setVersion(1L);
+        when(repository.findViewById(1L)).thenReturn(Optional.of(new SpaceshipView(1L, "Voyager", 2L)));
+
+        assertThatThrownBy(() -> spaceshipService.update(dto))
+                .isInstanceOf(VersionConflictException.class)
+                .hasMessageContaining("is at version 2");
+        verify(repository, times(1)).updateName(1L, "Enterprise", 1L);
+    }
+
+    @Test
+    void testUpdateRetriesAfterConcurrentModification() throws ResourceNotFoundException {
+        SpaceshipDTO dto = new SpaceshipDTO();
+        dto.setId(1L);
+        dto.setName("Enterprise");
+        when(repository.findViewById(1L))
+                .thenReturn(Optional.of(new SpaceshipView(1L, "Voyager", 0L)))
+                .thenReturn(Optional.of(new SpaceshipView(1L, "Voyager", 1L)));
+        when(repository.updateName(1L, "Enterprise", 1L)).thenReturn(1);
+
+        SpaceshipDTO result = spaceshipService.update(dto);
+
+        assertThat(result.getName()).isEqualTo("Enterprise");
+        assertThat(result.getVersion()).isEqualTo(2L);
+        verify(repository, times(2)).findViewById(1L);
     }
 
     @Test
     void testUpdateNotFound() {
         SpaceshipDTO dto = new SpaceshipDTO();
         dto.setId(1L);
-        when(repository.findById(1L)).thenReturn(Optional.empty());
+        when(repository.findViewById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> spaceshipService.update(dto))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Spaceship not found with id 1");
     }
 
+    @Test
+    void testCreateAllReportsEachRow() {
+        when(repository.findExistingNames(any())).thenReturn(List.of("Enterprise"));
+        SpaceshipDTO voyager = new SpaceshipDTO();
+        voyager.setName("Voyager");
+        SpaceshipDTO unnamed = new SpaceshipDTO();
+        unnamed.setName("");
+        SpaceshipDTO enterprise = new SpaceshipDTO();
+        enterprise.setName("Enterprise");
+
+        BatchResult result = spaceshipService.createAll(List.of(voyager, unnamed, enterprise));
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(BatchItemResult::getStatus)
+                .containsExactly(BatchItemStatus.CREATED, BatchItemStatus.FAILED, BatchItemStatus.FAILED);
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testUpdateAllSkipsRowsThatDoNotChange() {
+        when(repository.findAllById(any())).thenReturn(List.of(new Spaceship(1L, "Enterprise"), new Spaceship(2L, "Voyager")));
+        SpaceshipDTO unnamed = new SpaceshipDTO();
+        unnamed.setId(1L);
+
+        BatchResult result = spaceshipService.updateAll(List.of(unnamed, new SpaceshipDTO(2L, "Voyager", null)));
+
+        assertThat(result.getItems()).extracting(BatchItemResult::getStatus)
+                .containsExactly(BatchItemStatus.UPDATED, BatchItemStatus.UPDATED);
+        assertThat(events.stream(SpaceshipChangedEvent.class)).isEmpty();
+        assertThat(NativeCaches.caffeine(cacheManager.getCache(CacheNames.SPACESHIP)).orElseThrow().getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void testUpdateAllFlushesBufferedUpdatesFirst() {
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(writeBehind.pending(1L)).thenReturn(new SpaceshipDTO(1L, "Enterprise-A", null));
+        when(repository.findAllById(any())).thenReturn(List.of(new Spaceship(1L, "Enterprise")));
+
+        spaceshipService.updateAll(List.of(new SpaceshipDTO(1L, "Enterprise-B", null)));
+
+        InOrder inOrder = inOrder(writeBehind, repository);
+        inOrder.verify(writeBehind).flush();
+        inOrder.verify(repository).findAllById(any());
+    }
+
+    @Test
+    void testDeleteAllDiscardsBufferedUpdatesOfDeletedRows() {
+        when(repository.findAllById(any())).thenReturn(List.of(new Spaceship(1L, "Enterprise")));
+
+        spaceshipService.deleteAll(List.of(1L, 2L));
+
+        verify(writeBehind, times(1)).discard(1L);
+        verify(writeBehind, never()).discard(2L);
+    }
+
     @Test
     void testDelete() throws ResourceNotFoundException {
-        Spaceship spaceship = new Spaceship();
-        spaceship.setId(1L);
-        when(repository.findById(1L)).thenReturn(Optional.of(spaceship));
+        when(repository.findViewById(1L)).thenReturn(Optional.of(new SpaceshipView(1L, "Enterprise", 3L)));
+        when(repository.deleteByIdAndVersion(1L, 3L)).thenReturn(1);
 
         SpaceshipDTO result = spaceshipService.delete(1L);
 
-        assertThat(result).isNotNull();
-        verify(repository, times(1)).findById(1L);
-        verify(repository, times(1)).delete(spaceship);
+        assertThat(result.getName()).isEqualTo("Enterprise");
+        verify(repository, times(1)).findViewById(1L);
+        verify(repository, times(1)).deleteByIdAndVersion(1L, 3L);
+        verify(repository, never()).delete(any());
+        verify(writeBehind, times(1)).discard(1L);
+    }
+
+    @Test
+    void testDeleteKeepsTheBufferedUpdateWhenTheDeleteFails() {
+        when(repository.findViewById(1L)).thenReturn(Optional.of(new SpaceshipView(1L, "Enterprise", 3L)));
+        when(repository.deleteByIdAndVersion(1L, 3L)).thenReturn(0);
+
+        assertThatThrownBy(() -> spaceshipService.delete(1L)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(writeBehind, never()).discard(any());
+    }
+
+    @Test
+    void testBufferedUpdateIsNotCached() throws ResourceNotFoundException {
+        SpaceshipDTO buffered = new SpaceshipDTO(1L, "Voyager", null);
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(writeBehind.update(any())).thenReturn(buffered);
+        when(writeBehind.pending(1L)).thenReturn(buffered);
+        Cache cache = cacheManager.getCache(CacheNames.SPACESHIP);
+        cache.put(1L, new SpaceshipDTO(1L, "Enterprise", 0L));
+
+        assertThat(spaceshipService.update(new SpaceshipDTO(1L, "Voyager", null))).isEqualTo(buffered);
+        assertThat(NativeCaches.caffeine(cache).orElseThrow().getIfPresent(1L)).isNull();
+        assertThat(spaceshipService.getById(1L)).isEqualTo(buffered);
+        assertThat(NativeCaches.caffeine(cache).orElseThrow().getIfPresent(1L)).isNull();
+        verify(repository, never()).findViewById(any());
     }
 
     @Test
     void testDeleteNotFound() {
-        when(repository.findById(1L)).thenReturn(Optional.empty());
+        when(repository.findViewById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> spaceshipService.delete(1L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Spaceship not found with id 1");
+        verify(writeBehind, never()).discard(any());
     }
 }
@@ -0,0 +1,155 @@
+package com.martinseijo.spaceship.application.service;
+
+import com.martinseijo.spaceship.application.dto.BatchItemResult;
+import com.martinseijo.spaceship.application.dto.BatchItemStatus;
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.mapper.SpaceshipMapper;
+import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.exception.ServiceOverloadedException;
+import com.martinseijo.spaceship.domain.model.SpaceshipView;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SpaceshipWriteBehindBufferTest {
+
+    private final SpaceshipRepository repository = mock(SpaceshipRepository.class);
+    private final SpaceshipBatchWriter batchWriter = mock(SpaceshipBatchWriter.class);
+    private SpaceshipWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setup() {
+        buffer = buffer(10);
+        when(repository.findViewById(anyLong())).thenAnswer(invocation ->
+                Optional.of(new SpaceshipView(invocation.getArgument(0), "Enterprise", 0L)));
+        when(batchWriter.updateAll(anyList())).thenAnswer(invocation -> {
+            List<SpaceshipDTO> rows = invocation.getArgument(0);
+            List<BatchItemResult> items = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                items.add(BatchItemResult.success(i, BatchItemStatus.UPDATED, rows.get(i)));
+            }
+            return BatchResult.of(items);
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdatesOfTheSameIdAreCoalesced() throws ResourceNotFoundException {
+        buffer.update(dto(1L, "Enterprise-A"));
+        buffer.update(dto(1L, "Enterprise-B"));
+        SpaceshipDTO result = buffer.update(dto(1L, "Enterprise-C"));
+
+        assertThat(result.getName()).isEqualTo("Enterprise-C");
+        assertThat(buffer.pending(1L).getName()).isEqualTo("Enterprise-C");
+        verify(repository, times(1)).findViewById(1L);
+        verifyNoInteractions(batchWriter);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<SpaceshipDTO>> rows = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter).updateAll(rows.capture());
+        assertThat(rows.getValue()).extracting(SpaceshipDTO::getName).containsExactly("Enterprise-C");
+        assertThat(buffer.pending(1L)).isNull();
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    void testUpdateOfUnknownIdThrows() {
+        when(repository.findViewById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> buffer.update(dto(99L, "Ghost")))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void testBackpressureWhenBufferIsFull() throws ResourceNotFoundException {
+        buffer = buffer(1);
+        buffer.update(dto(1L, "Enterprise-A"));
+
+        assertThatThrownBy(() -> buffer.update(dto(2L, "Voyager-A")))
+                .isInstanceOf(ServiceOverloadedException.class);
+
+        buffer.flush();
+        buffer.update(dto(2L, "Voyager-A"));
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testDiscardDropsPendingUpdate() throws ResourceNotFoundException {
+        buffer.update(dto(1L, "Enterprise-A"));
+
+        buffer.discard(1L);
+        buffer.flush();
+
+        assertThat(buffer.pending(1L)).isNull();
+        verifyNoInteractions(batchWriter);
+    }
+
+    @Test
+    void testUpdateStaysVisibleWhileItsWriteIsInFlight() throws ResourceNotFoundException {
+        List<String> seenDuringWrite = new ArrayList<>();
+        when(batchWriter.updateAll(anyList())).thenAnswer(invocation -> {
+            seenDuringWrite.add(buffer.pending(1L).getName());
+            List<SpaceshipDTO> rows = invocation.getArgument(0);
+            return BatchResult.of(List.of(BatchItemResult.success(0, BatchItemStatus.UPDATED, rows.get(0))));
+        });
+        buffer.update(dto(1L, "Enterprise-A"));
+
+        buffer.flush();
+
+        assertThat(seenDuringWrite).containsExactly("Enterprise-A");
+        assertThat(buffer.pending(1L)).isNull();
+    }
+
+    @Test
+    void testUpdateDiscardedWhileInFlightIsNotRetried() throws ResourceNotFoundException {
+        when(batchWriter.updateAll(anyList())).thenAnswer(invocation -> {
+            buffer.discard(1L);
+            return BatchResult.of(List.of(BatchItemResult.failed(0, 1L, "Spaceship not found with id 1")));
+        });
+        buffer.update(dto(1L, "Enterprise-A"));
+
+        buffer.flush();
+
+        assertThat(buffer.pending(1L)).isNull();
+        assertThat(buffer.pendingCount()).isZero();
+        verify(batchWriter, times(1)).updateAll(anyList());
+    }
+
+    @Test
+    void testShutdownDrainsBuffer() throws ResourceNotFoundException {
+        buffer.update(dto(1L, "Enterprise-A"));
+        buffer.update(dto(2L, "Voyager-A"));
+
+        buffer.drainOnShutdown();
+
+        verify(batchWriter).updateAll(anyList());
+        assertThat(buffer.pendingCount()).isZero();
+        assertThat(buffer.isEnabled()).isFalse();
+    }
+
+    private SpaceshipWriteBehindBuffer buffer(int maxPending) {
+        return new SpaceshipWriteBehindBuffer(repository, Mappers.getMapper(SpaceshipMapper.class), batchWriter,
+                true, 4, maxPending, 100, Duration.ofMillis(10), 3);
+    }
+
+    private static SpaceshipDTO dto(Long id, String name) {
+        SpaceshipDTO dto = new SpaceshipDTO();
+        dto.setId(id);
+        dto.setName(name);
+        return dto;
+    }
+}
@@ -0,0 +1,139 @@
+package com.martinseijo.spaceship.application.snapshot;
+
+import com.martinseijo.spaceship.application.dto.SearchMode;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.readmodel.SpaceshipReadModel;
+import com.martinseijo.spaceship.application.search.PopularSearchCache;
+import com.martinseijo.spaceship.application.search.SpaceshipNameIndex;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SpaceshipSnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    private final SpaceshipRepository repository = mock(SpaceshipRepository.class);
+    private final SpaceshipReadModel readModel = mock(SpaceshipReadModel.class);
+    private SpaceshipNameIndex nameIndex;
+    private PopularSearchCache popularSearches;
+    private SpaceshipSnapshot snapshot;
+    private Path path;
+
+    @BeforeEach
+    void setup() {
+        nameIndex = new SpaceshipNameIndex(mock(SpaceshipRepository.class), mock(EntityManager.class));
+        ReflectionTestUtils.setField(nameIndex, "enabled", true);
+        popularSearches = new PopularSearchCache(repository, true, 8, 1, 100, 64, 4);
+        path = directory.resolve("spaceship.snapshot");
+        snapshot = snapshot(popularSearches);
+
+        when(repository.streamAll()).thenAnswer(invocation -> Stream.of(
+                new Spaceship(1L, "Enterprise", 0L),
+                new Spaceship(2L, "Millennium Falcon", 3L)));
+        when(repository.count()).thenReturn(2L);
+        when(repository.findMaxId()).thenReturn(2L);
+        when(repository.sumVersions()).thenReturn(3L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWriteAndRestore() {
+        snapshot.write();
+
+        assertThat(path).exists();
+        assertThat(snapshot.restore()).isTrue();
+        assertThat(nameIndex.isRestored()).isTrue();
+        assertThat(nameIndex.search("falcon", SearchMode.CONTAINS)).containsExactly(2L);
+        ArgumentCaptor<Stream<SpaceshipDTO>> restored = ArgumentCaptor.forClass(Stream.class);
+        verify(readModel).restore(restored.capture());
+        assertThat(restored.getValue().map(SpaceshipDTO::getVersion)).containsExactly(0L, 3L);
+    }
+
+    @Test
+    void testRestoresPopularSearchesWithoutQuerying() {
+        when(repository.findIdsByNameLike(anyString(), any(Pageable.class))).thenReturn(List.of(2L));
+        popularSearches.lookup(falconFilter());
+        snapshot.write();
+
+        PopularSearchCache restoredSearches = new PopularSearchCache(repository, true, 8, 1, 100, 64, 4);
+        assertThat(snapshot(restoredSearches).restore()).isTrue();
+
+        assertThat(restoredSearches.hottest()).extracting(PopularSearchCache.PopularQuery::name).containsExactly("falcon");
+        assertThat(restoredSearches.lookup(falconFilter())).containsExactly(2L);
+        verify(repository).findIdsByNameLike(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void testRestoreSkipsSnapshotWhenDatabaseChanged() {
+        snapshot.write();
+        when(repository.count()).thenReturn(3L);
+
+        assertThat(snapshot.restore()).isFalse();
+        assertThat(nameIndex.size()).isZero();
+        verify(readModel, never()).restore(any());
+    }
+
+    @Test
+    void testRestoreSkipsSnapshotWhenASpaceshipWasUpdatedSince() {
+        snapshot.write();
+        when(repository.sumVersions()).thenReturn(4L);
+
+        assertThat(snapshot.restore()).isFalse();
+        assertThat(nameIndex.isRestored()).isFalse();
+        verify(readModel, never()).restore(any());
+    }
+
+    @Test
+    void testRestoreRejectsCorruptedFile() throws IOException {
+        snapshot.write();
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x7F;
+        Files.write(path, bytes);
+
+        assertThat(snapshot.restore()).isFalse();
+        assertThat(nameIndex.isRestored()).isFalse();
+    }
+
+    @Test
+    void testRestoreWithoutFileStartsCold() {
+        assertThat(snapshot.restore()).isFalse();
+    }
+
+    private SpaceshipSnapshot snapshot(PopularSearchCache searches) {
+        return new SpaceshipSnapshot(repository, mock(EntityManager.class), nameIndex, searches, readModel,
+                new ConcurrentMapCacheManager(), mock(PlatformTransactionManager.class),
+                true, path, Duration.ofHours(1), 10);
+    }
+
+    private static SpaceshipFilter falconFilter() {
+        SpaceshipFilter filter = new SpaceshipFilter();
+        filter.setName("Falcon");
+        return filter;
+    }
+}
@@ -0,0 +1,115 @@
+package com.martinseijo.spaceship.infrastructure.aspect;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.service.SpaceshipServiceImpl;
+import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.exception.ServiceOverloadedException;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RepositoryBulkheadAspectTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(50);
+
+    private final SpaceshipRepository repository = mock(SpaceshipRepository.class);
+
+    @AfterEach
+    void endTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testRepositoryCallOutsideATransactionHoldsAPermit() {
+        RepositoryBulkheadAspect aspect = new RepositoryBulkheadAspect(2, TIMEOUT);
+        when(repository.count()).thenAnswer(invocation -> (long) aspect.availablePermits());
+
+        assertThat(proxy(repository, aspect).count()).isEqualTo(1L);
+        assertThat(aspect.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void testTransactionTakesOnePermitBeforeItsConnectionAndKeepsItUntilItReturns() {
+        RepositoryBulkheadAspect aspect = new RepositoryBulkheadAspect(2, TIMEOUT);
+        when(repository.count()).thenAnswer(invocation -> (long) aspect.availablePermits());
+        TransactionalWork work = proxy(new TransactionalWork(proxy(repository, aspect)), aspect);
+
+        assertThat(work.countTwice()).containsExactly(1L, 1L);
+        assertThat(aspect.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void testTransactionWaitsForAPermitBeforeBorrowingAConnection() {
+        RepositoryBulkheadAspect aspect = new RepositoryBulkheadAspect(0, TIMEOUT);
+        TransactionalWork target = new TransactionalWork(proxy(repository, aspect));
+
+        assertThatThrownBy(proxy(target, aspect)::countTwice).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(target.started).isFalse();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testServiceUpdateHoldsAPermitAroundItsTransactionTemplate() throws ResourceNotFoundException {
+        RepositoryBulkheadAspect aspect = new RepositoryBulkheadAspect(2, TIMEOUT);
+        SpaceshipServiceImpl service = mock(SpaceshipServiceImpl.class);
+        when(service.update(any())).thenAnswer(invocation -> new SpaceshipDTO(1L, "Voyager", (long) aspect.availablePermits()));
+
+        assertThat(proxy((SpaceshipService) service, aspect).update(new SpaceshipDTO(1L, "Voyager", null)).getVersion()).isEqualTo(1L);
+        assertThat(aspect.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void testRepositoryCallInsideATransactionWithoutAPermitNeverWaits() {
+        RepositoryBulkheadAspect aspect = new RepositoryBulkheadAspect(0, TIMEOUT);
+        when(repository.count()).thenReturn(3L);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThat(proxy(repository, aspect).count()).isEqualTo(3L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, RepositoryBulkheadAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        return (T) factory.getProxy();
+    }
+
+    /**
+     * Stands in for a transactional service; the transaction interceptor it would sit behind is
+     * simulated by marking the transaction active while the method runs.
+     */
+    static class TransactionalWork {
+
+        private final SpaceshipRepository repository;
+        private boolean started;
+
+        TransactionalWork(SpaceshipRepository repository) {
+            this.repository = repository;
+        }
+
+        @Transactional
+        public List<Long> countTwice() {
+            started = true;
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                return List.of(repository.count(), repository.count());
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+        }
+    }
+}
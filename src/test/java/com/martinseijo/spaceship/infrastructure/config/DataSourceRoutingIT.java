@@ -0,0 +1,91 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import com.martinseijo.spaceship.application.dto.ScrollOrder;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "spaceship.datasource.replica.enabled=true",
+        "spaceship.datasource.replica.url=" + DataSourceRoutingIT.REPLICA_URL,
+        "spaceship.datasource.replica.recent-write-window=PT2S"})
+class DataSourceRoutingIT {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:spaceship-replica-it;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private SpaceshipService spaceshipService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void migrateReplica() {
+        // Stands in for the external replication, which must copy the schema before the application starts.
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration").load().migrate();
+    }
+
+    @BeforeEach
+    void setup() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("DELETE FROM spaceship");
+        replicaJdbc.update("INSERT INTO spaceship (id, name, version) VALUES (5000, 'Replica only', 0)");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        await().atMost(Duration.ofSeconds(10)).until(() -> scrolledNames().contains("Replica only"));
+
+        SpaceshipDTO dto = new SpaceshipDTO();
+        dto.setName("Written to primary");
+        spaceshipService.create(dto);
+
+        assertThat(count(primary, "Written to primary")).isEqualTo(1);
+        assertThat(count(replica, "Written to primary")).isZero();
+        assertThat(scrolledNames()).contains("Written to primary").doesNotContain("Replica only");
+        await().atMost(Duration.ofSeconds(10)).until(() -> scrolledNames().contains("Replica only"));
+
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "spaceship-primary").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "spaceship-replica").gauge()).isNotNull();
+        assertThat(meterRegistry.get("spaceship.datasource.routing").tag("reason", "recent-write").counter().count()).isPositive();
+    }
+
+    private List<String> scrolledNames() {
+        return spaceshipService.getSpaceshipsScroll(null, 100, ScrollOrder.ID).getContent().stream()
+                .map(SpaceshipDTO::getName)
+                .toList();
+    }
+
+    private static int count(DataSource dataSource, String name) {
+        Integer count = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM spaceship WHERE name = ?", Integer.class, name);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,40 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DefaultDataSourceIT {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SpaceshipRepository repository;
+
+    @Test
+    void testDefaultPropertiesUseTheAutoConfiguredDataSource() {
+        assertThat(dataSource).isInstanceOf(HikariDataSource.class);
+        assertThat(context.getBeanNamesForType(ConnectionFactory.class)).isEmpty();
+        assertThat(context.containsBean("replicaDataSource")).isFalse();
+        assertThat(context.getBeanNamesForType(ReactiveDataConfig.class)).isEmpty();
+
+        Spaceship saved = repository.save(new Spaceship(null, "Enterprise"));
+
+        assertThat(repository.findById(saved.getId())).isPresent();
+        repository.deleteById(saved.getId());
+    }
+}
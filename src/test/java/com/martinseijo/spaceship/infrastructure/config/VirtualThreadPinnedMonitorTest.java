@@ -0,0 +1,50 @@
+package com.martinseijo.spaceship.infrastructure.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.awaitility.Awaitility.await;
+
+class VirtualThreadPinnedMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRecordsPinsAboveTheThreshold() throws InterruptedException {
+        // From JDK 24 on, blocking inside synchronized no longer pins the carrier thread.
+        assumeThat(Runtime.version().feature()).isLessThan(24);
+        VirtualThreadPinnedMonitor monitor = new VirtualThreadPinnedMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+        try {
+            assertThat(monitor.isRunning()).isTrue();
+            Object lock = new Object();
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    sleep(Duration.ofMillis(50));
+                }
+            }).join();
+
+            Timer pinned = meterRegistry.get("spaceship.virtual.threads.pinned").timer();
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(pinned.count()).isGreaterThanOrEqualTo(1));
+            // The JFR event can end a fraction of a millisecond short of the sleep itself.
+            assertThat(pinned.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(40);
+        } finally {
+            monitor.stop();
+        }
+        assertThat(monitor.isRunning()).isFalse();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.martinseijo.spaceship.infrastructure.kafka;
+
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spaceship.kafka.concurrency=1",
+        "spaceship.kafka.retry.attempts=0"})
+@EmbeddedKafka(partitions = 1, topics = {"spaceships", "spaceships.DLT"})
+class KafkaConsumerIT {
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private SpaceshipRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void testConsumeAppliesEventsAndDeadLettersBadRecords() {
+        Spaceship existing = repository.save(new Spaceship(null, "Enterprise"));
+
+        try (Producer<String, String> producer = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new StringSerializer()).createProducer()) {
+            producer.send(new ProducerRecord<>("spaceships", "Rocinante",
+                    "{\"type\":\"CREATE\",\"spaceship\":{\"name\":\"Rocinante\"}}"));
+            producer.send(new ProducerRecord<>("spaceships", "Enterprise",
+                    "{\"type\":\"UPDATE\",\"spaceship\":{\"id\":" + existing.getId() + ",\"name\":\"Enterprise-D\"}}"));
+            producer.send(new ProducerRecord<>("spaceships", "bad", "not json"));
+            producer.flush();
+        }
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                assertThat(repository.findExistingNames(List.of("Rocinante", "Enterprise-D")))
+                        .containsExactlyInAnyOrder("Rocinante", "Enterprise-D"));
+
+        try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(
+                KafkaTestUtils.consumerProps("dead-letter-check", "false", broker),
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, "spaceships.DLT");
+            ConsumerRecord<String, byte[]> deadLetter = KafkaTestUtils.getSingleRecord(consumer, "spaceships.DLT", Duration.ofSeconds(30));
+            assertThat(deadLetter.key()).isEqualTo("bad");
+            assertThat(new String(deadLetter.value(), StandardCharsets.UTF_8)).isEqualTo("not json");
+        }
+    }
+}
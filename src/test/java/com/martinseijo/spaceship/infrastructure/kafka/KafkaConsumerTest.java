@@ -0,0 +1,127 @@
+package com.martinseijo.spaceship.infrastructure.kafka;
+
+import com.martinseijo.spaceship.application.dto.BatchItemResult;
+import com.martinseijo.spaceship.application.dto.BatchItemStatus;
+import com.martinseijo.spaceship.application.dto.BatchResult;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipEvent;
+import com.martinseijo.spaceship.application.dto.SpaceshipEventType;
+import com.martinseijo.spaceship.domain.model.ConsumedOffset;
+import com.martinseijo.spaceship.domain.repository.ConsumedOffsetRepository;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class KafkaConsumerTest {
+
+    private SpaceshipService spaceshipService;
+    private ConsumedOffsetRepository offsetRepository;
+    private DeadLetterPublishingRecoverer recoverer;
+    private Acknowledgment acknowledgment;
+    private KafkaConsumer consumer;
+
+    @BeforeEach
+    void setup() {
+        spaceshipService = mock(SpaceshipService.class);
+        offsetRepository = mock(ConsumedOffsetRepository.class);
+        recoverer = mock(DeadLetterPublishingRecoverer.class);
+        acknowledgment = mock(Acknowledgment.class);
+        consumer = new KafkaConsumer(spaceshipService, offsetRepository, recoverer, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRedeliveredPollSkipsRecordsAlreadyApplied() {
+        when(offsetRepository.findByTopicPartitionIn(any()))
+                .thenReturn(List.of(new ConsumedOffset("spaceships-0", 2L)));
+        when(spaceshipService.createAll(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+
+        consumer.consume(List.of(create(0, "Voyager"), create(1, "Enterprise"), create(2, "Rocinante")), acknowledgment);
+
+        verify(spaceshipService).createAll(List.of(new SpaceshipDTO(null, "Rocinante", null)));
+        ArgumentCaptor<List<ConsumedOffset>> saved = ArgumentCaptor.forClass(List.class);
+        verify(offsetRepository).saveAllAndFlush(saved.capture());
+        assertThat(saved.getValue()).singleElement().satisfies(offset -> {
+            assertThat(offset.getTopicPartition()).isEqualTo("spaceships-0");
+            assertThat(offset.getNextOffset()).isEqualTo(3L);
+        });
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void testFullyAppliedPollIsOnlyAcknowledged() {
+        when(offsetRepository.findByTopicPartitionIn(any()))
+                .thenReturn(List.of(new ConsumedOffset("spaceships-0", 2L)));
+
+        consumer.consume(List.of(create(0, "Voyager"), malformed(1)), acknowledgment);
+
+        verifyNoInteractions(spaceshipService, recoverer);
+        verify(offsetRepository).saveAllAndFlush(List.of());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void testFailedPollIsRetriedOneRecordPerTransaction() {
+        when(spaceshipService.createAll(anyList())).thenAnswer(invocation -> {
+            List<SpaceshipDTO> dtos = invocation.getArgument(0);
+            if (dtos.size() > 1) {
+                throw new IllegalStateException("Unique index violated");
+            }
+            return created(dtos);
+        });
+
+        consumer.consume(List.of(create(0, "Voyager"), create(1, "Enterprise"), malformed(2)), acknowledgment);
+
+        verify(spaceshipService, times(3)).createAll(anyList());
+        verify(recoverer, times(1)).accept(argThat(r -> r.offset() == 2), any());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void testRecordThatKeepsFailingIsHandedToTheErrorHandler() {
+        ConsumerRecord<String, SpaceshipEvent> voyager = create(0, "Voyager");
+        ConsumerRecord<String, SpaceshipEvent> enterprise = create(1, "Enterprise");
+        when(spaceshipService.createAll(anyList())).thenAnswer(invocation -> {
+            List<SpaceshipDTO> dtos = invocation.getArgument(0);
+            if (dtos.size() > 1 || dtos.get(0).getName().equals("Enterprise")) {
+                throw new IllegalStateException("Unique index violated");
+            }
+            return created(dtos);
+        });
+
+        assertThatThrownBy(() -> consumer.consume(List.of(voyager, enterprise), acknowledgment))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getRecord()).isSameAs(enterprise));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private static BatchResult created(List<SpaceshipDTO> dtos) {
+        return BatchResult.of(dtos.stream()
+                .map(dto -> BatchItemResult.success(dtos.indexOf(dto), BatchItemStatus.CREATED, dto))
+                .toList());
+    }
+
+    private static ConsumerRecord<String, SpaceshipEvent> create(long offset, String name) {
+        return new ConsumerRecord<>("spaceships", 0, offset, name,
+                new SpaceshipEvent(SpaceshipEventType.CREATE, new SpaceshipDTO(null, name, null)));
+    }
+
+    private static ConsumerRecord<String, SpaceshipEvent> malformed(long offset) {
+        return new ConsumerRecord<>("spaceships", 0, offset, "bad", null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void testRejectsRequestsOverTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10, Duration.ofMillis(100));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void testSlowOrOverloadedSamplesCutTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 20, Duration.ZERO);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void testCutsAtMostOncePerLatencyTarget() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 20, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+            limiter.release(Duration.ofMinutes(2).toNanos(), false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void testFastSamplesGrowTheLimitOnlyWhileItIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 5, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int round = 0; round < 20; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initial, int min, int max, Duration latencyTarget) {
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true, initial, min, max, latencyTarget, 0.5);
+    }
+}
@@ -0,0 +1,76 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spaceship.rate-limit.enabled=true",
+        "spaceship.rate-limit.routes[/spaceships/search].capacity=2",
+        "spaceship.rate-limit.routes[/spaceships/search].refill-per-second=0.01",
+        "spaceship.load-shedding.enabled=true"})
+@AutoConfigureMockMvc
+class LoadSheddingIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Test
+    void testRejectsAClientOverItsRouteBudgetWith429() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            search("10.0.0.1").andExpect(status().isOk());
+        }
+
+        search("10.0.0.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, matchesPattern("\\d{2,3}")));
+        search("10.0.0.2").andExpect(status().isOk());
+        mockMvc.perform(get("/spaceships").with(request -> {
+                    request.setRemoteAddr("10.0.0.1");
+                    return request;
+                }))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testShedsRequestsOverTheConcurrencyLimitWith503() throws Exception {
+        int acquired = 0;
+        while (concurrencyLimiter.tryAcquire()) {
+            acquired++;
+        }
+        try {
+            mockMvc.perform(get("/spaceships"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        } finally {
+            for (int i = 0; i < acquired; i++) {
+                concurrencyLimiter.release();
+            }
+        }
+        mockMvc.perform(get("/spaceships")).andExpect(status().isOk());
+    }
+
+    private ResultActions search(String client) throws Exception {
+        return mockMvc.perform(post("/spaceships/search")
+                .with(request -> {
+                    request.setRemoteAddr(client);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Enterprise\"}"));
+    }
+}
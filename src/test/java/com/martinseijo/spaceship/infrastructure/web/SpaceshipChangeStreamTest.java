@@ -0,0 +1,62 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipChangePage;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SpaceshipChangeStreamTest {
+
+    private final SpaceshipService spaceshipService = mock(SpaceshipService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SpaceshipChangeStream stream = new SpaceshipChangeStream(spaceshipService, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        stream.shutdown();
+    }
+
+    @Test
+    void testStalledSubscriberDoesNotHoldUpTheOthers() {
+        when(spaceshipService.getChanges(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long since = invocation.getArgument(0);
+            if (since == 1L) {
+                release.await();
+            }
+            return new SpaceshipChangePage(List.of(), since, false);
+        });
+
+        stream.subscribe(1L);
+        stream.subscribe(2L);
+        stream.onSpaceshipChanged(null);
+
+        verify(spaceshipService, timeout(1000).atLeastOnce()).getChanges(eq(2L), anyInt());
+    }
+
+    @Test
+    void testSignalsDuringADeliveryCollapseIntoOneMorePass() {
+        when(spaceshipService.getChanges(anyLong(), anyInt())).thenAnswer(invocation -> {
+            release.await();
+            return new SpaceshipChangePage(List.of(), invocation.getArgument(0), false);
+        });
+
+        stream.subscribe(1L);
+        verify(spaceshipService, timeout(1000)).getChanges(1L, 500);
+        for (int i = 0; i < 10; i++) {
+            stream.onSpaceshipChanged(null);
+        }
+        release.countDown();
+
+        verify(spaceshipService, after(200).times(2)).getChanges(1L, 500);
+    }
+}
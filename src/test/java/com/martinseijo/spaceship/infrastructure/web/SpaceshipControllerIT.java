@@ -1,6 +1,8 @@
 package com.martinseijo.spaceship.infrastructure.web;
 
+import com.jayway.jsonpath.JsonPath;
 import com.martinseijo.spaceship.application.dto.SpaceshipFilter;
+import com.martinseijo.spaceship.application.search.SpaceshipNameIndex;
 import com.martinseijo.spaceship.domain.model.Spaceship;
 import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,13 +10,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -27,6 +37,12 @@ class SpaceshipControllerIT {
     @Autowired
     private SpaceshipRepository repository;
 
+    @Autowired
+    private SpaceshipNameIndex nameIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     private Long spaceshipId;
 
     @BeforeEach
@@ -34,6 +50,8 @@ class SpaceshipControllerIT {
         repository.deleteAll();
         Spaceship spaceship = repository.save(new Spaceship(null, "Enterprise"));
         spaceshipId = spaceship.getId();
+        nameIndex.rebuild();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     @Test
@@ -45,6 +63,36 @@ class SpaceshipControllerIT {
                 .andExpect(jsonPath("$[0].name").value("Enterprise"));
     }
 
+    @Test
+    void testExportSpaceshipsAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/spaceships/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"name\":\"Enterprise\"")));
+    }
+
+    @Test
+    void testExportSpaceshipsAsJsonArray() throws Exception {
+        MvcResult result = mockMvc.perform(get("/spaceships/export").param("format", "json"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Enterprise"));
+    }
+
+    @Test
+    void testExportSpaceshipsWithUnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/spaceships/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetSpaceshipById() throws Exception {
         mockMvc.perform(get("/spaceships/" + spaceshipId)
@@ -84,6 +132,37 @@ class SpaceshipControllerIT {
                 .andExpect(jsonPath("$.name").value("Updated Enterprise"));
     }
 
+    @Test
+    void testConditionalGetAndUpdate() throws Exception {
+        mockMvc.perform(get("/spaceships/" + spaceshipId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        mockMvc.perform(get("/spaceships/" + spaceshipId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+
+        String rename = """
+                {
+                    "id": %d,
+                    "name": "Enterprise-A"
+                }
+                """.formatted(spaceshipId);
+        mockMvc.perform(put("/spaceships/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content(rename))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put("/spaceships/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content(rename))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/spaceships/" + spaceshipId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
     @Test
     void testDeleteSpaceship() throws Exception {
         mockMvc.perform(delete("/spaceships/delete/" + spaceshipId))
@@ -93,6 +172,114 @@ class SpaceshipControllerIT {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testCreateSpaceshipsInBatch() throws Exception {
+        mockMvc.perform(post("/spaceships/batch/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                    { "name": "Voyager" },
+                                    { "name": "" },
+                                    { "name": "Enterprise" },
+                                    { "name": "Defiant" }
+                                ]
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.items[2].status").value("FAILED"))
+                .andExpect(jsonPath("$.items[3].status").value("CREATED"));
+    }
+
+    @Test
+    void testUpdateSpaceshipsInBatchRefreshesCaches() throws Exception {
+        mockMvc.perform(get("/spaceships/" + spaceshipId))
+                .andExpect(jsonPath("$.name").value("Enterprise"));
+        mockMvc.perform(get("/spaceships"))
+                .andExpect(jsonPath("$[0].name").value("Enterprise"));
+
+        mockMvc.perform(put("/spaceships/batch/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\": %d, \"name\": \"Enterprise-E\"}]".formatted(spaceshipId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].status").value("UPDATED"));
+
+        mockMvc.perform(get("/spaceships/" + spaceshipId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Enterprise-E"))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(get("/spaceships"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Enterprise-E"));
+    }
+
+    @Test
+    void testChangeFeedFollowsWrites() throws Exception {
+        MvcResult head = mockMvc.perform(get("/spaceships/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.size()").value(0))
+                .andReturn();
+        long since = ((Number) JsonPath.read(head.getResponse().getContentAsString(), "$.nextSince")).longValue();
+
+        mockMvc.perform(put("/spaceships/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": %d, \"name\": \"Enterprise-D\"}".formatted(spaceshipId)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/spaceships/delete/" + spaceshipId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/spaceships/changes")
+                        .param("since", String.valueOf(since))
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.size()").value(1))
+                .andExpect(jsonPath("$.changes[0].seq").value(since + 1))
+                .andExpect(jsonPath("$.changes[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[0].name").value("Enterprise-D"))
+                .andExpect(jsonPath("$.nextSince").value(since + 1))
+                .andExpect(jsonPath("$.hasMore").value(true));
+        mockMvc.perform(get("/spaceships/changes")
+                        .param("since", String.valueOf(since + 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("DELETED"))
+                .andExpect(jsonPath("$.changes[0].id").value(spaceshipId))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void testChangeFeedWithNegativeSince() throws Exception {
+        mockMvc.perform(get("/spaceships/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetSpaceshipsInBatch() throws Exception {
+        mockMvc.perform(post("/spaceships/batch/get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[999999, %d]".formatted(spaceshipId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[0].id").value(999999))
+                .andExpect(jsonPath("$[0].found").value(false))
+                .andExpect(jsonPath("$[1].found").value(true))
+                .andExpect(jsonPath("$[1].spaceship.name").value("Enterprise"));
+    }
+
+    @Test
+    void testDeleteSpaceshipsInBatch() throws Exception {
+        mockMvc.perform(post("/spaceships/batch/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[%d, 999999]".formatted(spaceshipId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].status").value("DELETED"))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"));
+
+        mockMvc.perform(get("/spaceships/" + spaceshipId))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testGetAllSpaceshipsPaginated() throws Exception {
         Pageable pageable = PageRequest.of(0, 1);
@@ -106,6 +293,100 @@ class SpaceshipControllerIT {
                 .andExpect(jsonPath("$.content[0].name").value("Enterprise"));
     }
 
+    @Test
+    void testGetAllSpaceshipsPaginatedWithCountStrategy() throws Exception {
+        repository.save(new Spaceship(null, "Voyager"));
+
+        mockMvc.perform(get("/spaceships/paginated").param("size", "1").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Count-Strategy", "none"))
+                .andExpect(jsonPath("$.content[0].name").value("Enterprise"))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        mockMvc.perform(get("/spaceships/paginated").param("size", "1").param("count", "estimated"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Count-Strategy", "estimated"))
+                .andExpect(jsonPath("$.totalElements", greaterThanOrEqualTo(2)));
+        mockMvc.perform(get("/spaceships/paginated").param("size", "1").param("page", "1").param("count", "cached"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Count-Strategy", "cached"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+        mockMvc.perform(get("/spaceships/paginated").param("count", "sometimes"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetSpaceshipsByFilterWithPrefixMode() throws Exception {
+        mockMvc.perform(post("/spaceships/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "name": "enter",
+                                    "mode": "PREFIX"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Enterprise"));
+    }
+
+    @Test
+    void testScrollSpaceshipsFollowsCursor() throws Exception {
+        repository.save(new Spaceship(null, "Voyager"));
+
+        MvcResult firstPage = mockMvc.perform(get("/spaceships/scroll")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Enterprise"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+        String cursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get("/spaceships/scroll")
+                        .param("size", "1")
+                        .param("cursor", cursor)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Voyager"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void testScrollSpaceshipsRejectsAnOrderThatDoesNotMatchTheCursor() throws Exception {
+        repository.save(new Spaceship(null, "Voyager"));
+
+        MvcResult firstPage = mockMvc.perform(get("/spaceships/scroll")
+                        .param("size", "1")
+                        .param("order", "name")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        String cursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get("/spaceships/scroll")
+                        .param("size", "1")
+                        .param("cursor", cursor)
+                        .param("order", "id")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/spaceships/scroll")
+                        .param("size", "1")
+                        .param("cursor", cursor)
+                        .param("order", "name")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Voyager"));
+    }
+
+    @Test
+    void testScrollSpaceshipsWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/spaceships/scroll")
+                        .param("cursor", "not-a-cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetSpaceshipsByFilter() throws Exception {
         SpaceshipFilter filter = new SpaceshipFilter();
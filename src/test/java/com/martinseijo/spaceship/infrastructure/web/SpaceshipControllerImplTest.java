@@ -2,6 +2,8 @@ package com.martinseijo.spaceship.infrastructure.web;
 
 import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
 import com.martinseijo.spaceship.domain.exception.ResourceNotFoundException;
+import com.martinseijo.spaceship.domain.exception.ServiceOverloadedException;
+import com.martinseijo.spaceship.domain.exception.VersionConflictException;
 import com.martinseijo.spaceship.domain.service.SpaceshipService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,6 +54,35 @@ class SpaceshipControllerImplTest {
         assertThat(response.getBody()).isNotNull();
     }
 
+    @Test
+    void testGetByIdReturnsETag() throws ResourceNotFoundException {
+        SpaceshipDTO spaceship = new SpaceshipDTO();
+        spaceship.setId(1L);
+        spaceship.setVersion(3L);
+        when(spaceshipService.getById(1L)).thenReturn(spaceship);
+
+        ResponseEntity<SpaceshipDTO> response = restTemplate.getForEntity(createURLWithPort("/spaceships/1"), SpaceshipDTO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"3\"");
+    }
+
+    @Test
+    void testGetByIdNotModified() throws ResourceNotFoundException {
+        SpaceshipDTO spaceship = new SpaceshipDTO();
+        spaceship.setId(1L);
+        spaceship.setVersion(3L);
+        when(spaceshipService.getById(1L)).thenReturn(spaceship);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"3\"");
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                createURLWithPort("/spaceships/1"), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+    }
+
     @Test
     void testGetByIdNotFound() throws ResourceNotFoundException {
         when(spaceshipService.getById(1L)).thenThrow(new ResourceNotFoundException("Spaceship not found with id 1"));
@@ -61,6 +92,16 @@ class SpaceshipControllerImplTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void testGetByIdOverloaded() throws ResourceNotFoundException {
+        when(spaceshipService.getById(1L)).thenThrow(new ServiceOverloadedException("Too many concurrent database requests, try again later"));
+
+        ResponseEntity<String> response = restTemplate.getForEntity(createURLWithPort("/spaceships/1"), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
     @Test
     void testCreate() {
         SpaceshipDTO dto = new SpaceshipDTO();
@@ -96,6 +137,23 @@ class SpaceshipControllerImplTest {
         verify(spaceshipService, times(1)).update(any());
     }
 
+    @Test
+    void testUpdateIsConditionalOnIfMatch() throws ResourceNotFoundException {
+        SpaceshipDTO dto = new SpaceshipDTO();
+        dto.setId(1L);
+        dto.setName("Enterprise");
+        when(spaceshipService.update(any())).thenThrow(new VersionConflictException("Spaceship 1 is at version 4, not 3"));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfMatch("\"3\"");
+        ResponseEntity<String> response = restTemplate.exchange(
+                createURLWithPort("/spaceships/update"), HttpMethod.PUT, new HttpEntity<>(dto, headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(spaceshipService).update(argThat(sent -> Long.valueOf(3L).equals(sent.getVersion())));
+    }
+
     @Test
     void testDelete() throws ResourceNotFoundException {
         SpaceshipDTO dto = new SpaceshipDTO();
@@ -0,0 +1,73 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceshipDTOSerializerTest {
+
+    private static final List<SpaceshipDTO> SPACESHIPS = List.of(
+            new SpaceshipDTO(1L, "Enterprise", 3L),
+            new SpaceshipDTO(null, "Voyager \"NCC-74656\"", null),
+            new SpaceshipDTO(2L, null, 0L));
+
+    @Test
+    void testWritesTheSameJsonAsTheBeanSerializer() throws Exception {
+        ObjectMapper reflective = new ObjectMapper();
+        ObjectMapper tuned = new ObjectMapper().registerModule(SpaceshipWireFormats.spaceshipModule());
+
+        assertThat(tuned.writeValueAsString(SPACESHIPS)).isEqualTo(reflective.writeValueAsString(SPACESHIPS));
+    }
+
+    @Test
+    void testWritesCborMapsWithADefiniteLength() throws Exception {
+        ObjectMapper reflective = new ObjectMapper(new CBORFactory());
+        ObjectMapper tuned = new ObjectMapper(new CBORFactory()).registerModule(SpaceshipWireFormats.spaceshipModule());
+
+        byte[] bytes = tuned.writeValueAsBytes(SPACESHIPS);
+        byte[] reflectiveBytes = reflective.writeValueAsBytes(SPACESHIPS);
+        assertThat(reflective.readTree(bytes)).isEqualTo(reflective.readTree(reflectiveBytes));
+        assertThat(reflective.readValue(bytes, SpaceshipDTO[].class)).containsExactlyElementsOf(SPACESHIPS);
+        assertThat(bytes).hasSizeLessThan(reflectiveBytes.length);
+    }
+
+    @Test
+    void testEncodedSizesMatchTheReadme() throws Exception {
+        SpaceshipDTO spaceship = new SpaceshipDTO(1L, "Enterprise", 3L);
+        List<SpaceshipDTO> content = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new SpaceshipDTO(id, "Spaceship " + id, 0L))
+                .toList();
+        Page<SpaceshipDTO> page = new PageImpl<>(content, PageRequest.of(0, 20), 1000);
+        ObjectMapper json = new ObjectMapper().registerModule(SpaceshipWireFormats.spaceshipModule());
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory())
+                .registerModule(SpaceshipWireFormats.spaceshipModule())
+                .registerModule(SpaceshipWireFormats.binaryEnvelopeModule());
+        ObjectMapper smile = new ObjectMapper(new SmileFactory())
+                .registerModule(SpaceshipWireFormats.spaceshipModule())
+                .registerModule(SpaceshipWireFormats.binaryEnvelopeModule());
+        ObjectMapper reflectiveCbor = new ObjectMapper(new CBORFactory());
+
+        assertThat(json.writeValueAsBytes(spaceship)).hasSize(40);
+        assertThat(cbor.writeValueAsBytes(spaceship)).hasSize(30);
+        assertThat(reflectiveCbor.writeValueAsBytes(spaceship)).hasSize(31);
+        assertThat(smile.writeValueAsBytes(spaceship)).hasSize(35);
+
+        assertThat(json.writeValueAsBytes(content)).hasSize(863);
+        assertThat(cbor.writeValueAsBytes(content)).hasSize(632);
+        assertThat(reflectiveCbor.writeValueAsBytes(content)).hasSize(652);
+        assertThat(smile.writeValueAsBytes(content)).hasSize(415);
+
+        assertThat(cbor.writeValueAsBytes(page)).hasSize(717);
+        assertThat(smile.writeValueAsBytes(page)).hasSize(503);
+    }
+}
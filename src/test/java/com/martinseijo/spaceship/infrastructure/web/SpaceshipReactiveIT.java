@@ -0,0 +1,156 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipChangeDTO;
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.application.service.SpaceshipChangeLog;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangeType;
+import com.martinseijo.spaceship.domain.event.SpaceshipChangedEvent;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import com.martinseijo.spaceship.infrastructure.config.ReactiveServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spaceship.reactive.enabled=true", "spaceship.reactive.port=0"})
+class SpaceshipReactiveIT {
+
+    @Autowired
+    private ReactiveServer reactiveServer;
+
+    @Autowired
+    private SpaceshipRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private SpaceshipChangeLog changeLog;
+
+    @Autowired
+    private ListenerThreads listenerThreads;
+
+    private WebTestClient client;
+    private Long spaceshipId;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        spaceshipId = repository.save(new Spaceship(null, "Enterprise")).getId();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveServer.getPort())
+                .build();
+    }
+
+    @Test
+    void testGetAllSpaceships() {
+        client.get().uri("/spaceships")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(SpaceshipDTO.class)
+                .hasSize(1)
+                .value(spaceships -> assertThat(spaceships.get(0).getName()).isEqualTo("Enterprise"));
+    }
+
+    @Test
+    void testGetSpaceshipById() {
+        client.get().uri("/spaceships/{id}", spaceshipId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Enterprise");
+    }
+
+    @Test
+    void testGetSpaceshipByIdNotFound() {
+        client.get().uri("/spaceships/{id}", -1)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.statusCode").isEqualTo(404);
+    }
+
+    @Test
+    void testExportStreamsNdjson() {
+        client.get().uri("/spaceships/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(SpaceshipDTO.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void testCreateUpdateAndDelete() {
+        long head = changeLog.getChanges(null, 1).getNextSince();
+        SpaceshipDTO created = client.post().uri("/spaceships/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"Millennium Falcon\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(SpaceshipDTO.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(created).isNotNull();
+        assertThat(repository.findById(created.getId())).isPresent();
+
+        client.put().uri("/spaceships/update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue("{\"id\": %d, \"name\": \"Falcon\"}".formatted(created.getId()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+        client.put().uri("/spaceships/update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue("{\"id\": %d, \"name\": \"Falcon\"}".formatted(created.getId()))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        client.delete().uri("/spaceships/delete/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(repository.findById(created.getId())).isEmpty();
+        assertThat(changeLog.getChanges(head, 10).getChanges())
+                .extracting(SpaceshipChangeDTO::getType)
+                .containsExactly(SpaceshipChangeType.CREATED, SpaceshipChangeType.UPDATED, SpaceshipChangeType.DELETED);
+    }
+
+    @Test
+    void testChangeListenersRunOffTheEventLoop() {
+        listenerThreads.names.clear();
+        client.post().uri("/spaceships/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"Voyager\"}")
+                .exchange()
+                .expectStatus().isCreated();
+
+        assertThat(listenerThreads.names).singleElement().asString().startsWith("boundedElastic-");
+    }
+
+    @TestConfiguration
+    static class ListenerThreads {
+
+        private final List<String> names = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onChange(SpaceshipChangedEvent event) {
+            names.add(Thread.currentThread().getName());
+        }
+    }
+}
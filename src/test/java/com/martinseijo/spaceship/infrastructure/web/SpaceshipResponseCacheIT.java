@@ -0,0 +1,136 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.martinseijo.spaceship.application.dto.SpaceshipDTO;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import com.martinseijo.spaceship.domain.service.SpaceshipService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spaceship.response-cache.enabled=true", "spaceship.response-cache.gzip-min-size=0"})
+@AutoConfigureMockMvc
+class SpaceshipResponseCacheIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SpaceshipRepository repository;
+
+    @Autowired
+    private SpaceshipService spaceshipService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long spaceshipId;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        spaceshipId = repository.save(new Spaceship(null, "Enterprise")).getId();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testServesTheCachedBodyUntilASpaceshipChanges() throws Exception {
+        MvcResult first = mockMvc.perform(get("/spaceships"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Enterprise"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).matches("\"[0-9a-f]{32}\"");
+
+        repository.save(new Spaceship(null, "Voyager"));
+        mockMvc.perform(get("/spaceships"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(jsonPath("$.size()").value(1));
+        mockMvc.perform(get("/spaceships").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        spaceshipService.update(new SpaceshipDTO(spaceshipId, "USS Enterprise", null));
+        mockMvc.perform(get("/spaceships").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(content().string(containsString("USS Enterprise")));
+    }
+
+    @Test
+    void testServesThePrecompressedVariantToGzipClients() throws Exception {
+        byte[] plain = mockMvc.perform(get("/spaceships/paginated").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult gzipped = mockMvc.perform(get("/spaceships/paginated").param("size", "5")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, containsString("-gzip")))
+                .andReturn();
+
+        assertThat(gunzip(gzipped.getResponse().getContentAsByteArray())).isEqualTo(plain);
+        mockMvc.perform(get("/spaceships/paginated").param("size", "5").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void testKeysResponsesByWireFormat() throws Exception {
+        String jsonETag = mockMvc.perform(get("/spaceships/paginated"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/spaceships/paginated").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    void testKeysResponsesByPageable() throws Exception {
+        repository.save(new Spaceship(null, "Voyager"));
+
+        mockMvc.perform(get("/spaceships/paginated").param("size", "1").param("sort", "name"))
+                .andExpect(jsonPath("$.content[0].name").value("Enterprise"));
+        mockMvc.perform(get("/spaceships/paginated").param("size", "1").param("page", "1").param("sort", "name"))
+                .andExpect(jsonPath("$.content[0].name").value("Voyager"));
+    }
+
+    @Test
+    void testDeleteInvalidatesCachedResponses() throws Exception {
+        mockMvc.perform(get("/spaceships")).andExpect(jsonPath("$.size()").value(1));
+
+        spaceshipService.delete(spaceshipId);
+
+        mockMvc.perform(get("/spaceships")).andExpect(jsonPath("$.size()").value(0));
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
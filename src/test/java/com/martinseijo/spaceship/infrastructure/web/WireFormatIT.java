@@ -0,0 +1,134 @@
+package com.martinseijo.spaceship.infrastructure.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.martinseijo.spaceship.application.readmodel.SpaceshipReadModel;
+import com.martinseijo.spaceship.domain.model.Spaceship;
+import com.martinseijo.spaceship.domain.repository.SpaceshipRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spaceship.read-model.enabled=true", "spaceship.response-cache.enabled=true"})
+@AutoConfigureMockMvc
+class WireFormatIT {
+
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+    private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SpaceshipRepository repository;
+
+    @Autowired
+    private SpaceshipReadModel readModel;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long spaceshipId;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        spaceshipId = repository.save(new Spaceship(null, "Enterprise")).getId();
+        readModel.rebuild();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testJsonIsTheDefault() throws Exception {
+        mockMvc.perform(get("/spaceships/paginated"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content[0].name").value("Enterprise"))
+                .andExpect(jsonPath("$.pageable").exists());
+        mockMvc.perform(get("/spaceships/{id}", spaceshipId).header(HttpHeaders.ACCEPT, "text/html, */*;q=0.8"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.name").value("Enterprise"));
+    }
+
+    @Test
+    void testServesPagesAsCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/spaceships/paginated").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = CBOR.readTree(body);
+        assertThat(page.path("content").path(0).path("name").asText()).isEqualTo("Enterprise");
+        assertThat(page.path("totalElements").asLong()).isEqualTo(1);
+        assertThat(page.has("pageable")).isFalse();
+    }
+
+    @Test
+    void testServesASpaceshipAsSmileBypassingTheJsonReadModel() throws Exception {
+        byte[] body = mockMvc.perform(get("/spaceships/{id}", spaceshipId)
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SpaceshipWireFormats.SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode spaceship = SMILE.readTree(body);
+        assertThat(spaceship.path("id").asLong()).isEqualTo(spaceshipId);
+        assertThat(spaceship.path("name").asText()).isEqualTo("Enterprise");
+    }
+
+    @Test
+    void testEachFormatOfASpaceshipHasItsOwnETag() throws Exception {
+        String jsonETag = mockMvc.perform(get("/spaceships/{id}", spaceshipId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cborETag = mockMvc.perform(get("/spaceships/{id}", spaceshipId).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(cborETag).isNotEqualTo(jsonETag);
+        mockMvc.perform(get("/spaceships/{id}", spaceshipId)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get("/spaceships/{id}", spaceshipId)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, cborETag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void testAcceptsCborRequestBodies() throws Exception {
+        byte[] body = mockMvc.perform(post("/spaceships/create")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(CBOR.writeValueAsBytes(Map.of("name", "Voyager"))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(CBOR.readTree(body).path("name").asText()).isEqualTo("Voyager");
+    }
+}